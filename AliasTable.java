@@ -0,0 +1,100 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Constant-time weighted sampling from a fixed set of items
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+// Vose's alias method: the n weights are scaled to average 1 and split into n columns of
+// height 1, each holding its own item up to probability[i] and one other item (alias[i]) above
+// that. Building the table is O(n); sample() picks a column and a height, so it is O(1) with
+// one random int and one random double. The set cannot change after construction; use
+// WeightedRandomizedQueue for a set that does.
+public class AliasTable<Item> {
+
+    private final Item[] items;
+    private final double[] probability;
+    private final int[] alias;
+
+    // build the table for items[i] chosen with probability weights[i] / sum of weights
+    public AliasTable(Item[] items, double[] weights) {
+        if (items == null || weights == null) {
+            throw new IllegalArgumentException("Please enter valid items and weights");
+        }
+        int n = items.length;
+        if (n == 0) throw new IllegalArgumentException("There must be at least one item");
+        if (weights.length != n) {
+            throw new IllegalArgumentException("There must be one weight per item");
+        }
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (items[i] == null) throw new IllegalArgumentException("Please enter valid items");
+            if (!(weights[i] > 0) || Double.isInfinite(weights[i])) {
+                throw new IllegalArgumentException("weights must be positive and finite");
+            }
+            total += weights[i];
+        }
+        this.items = items.clone();
+        probability = new double[n];
+        alias = new int[n];
+
+        // columns below average height are small, the rest large; both lists share one array,
+        // small growing up from the front and large down from the back
+        double[] scaled = new double[n];
+        int[] work = new int[n];
+        int small = 0;
+        int large = n;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) work[small++] = i;
+            else work[--large] = i;
+        }
+        // top up each small column from a large one, which may become small in turn
+        while (small > 0 && large < n) {
+            int less = work[--small];
+            int more = work[large++];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) work[small++] = more;
+            else work[--large] = more;
+        }
+        // what is left is 1 up to rounding
+        while (large < n) {
+            probability[work[large++]] = 1;
+        }
+        while (small > 0) {
+            probability[work[--small]] = 1;
+        }
+    }
+
+    // return the number of items
+    public int size() {
+        return items.length;
+    }
+
+    // return a random item, chosen in proportion to its weight
+    public Item sample() {
+        int column = StdRandom.uniform(items.length);
+        return StdRandom.uniform() < probability[column] ? items[column] : items[alias[column]];
+    }
+
+    // unit testing: samples items of weight 1, 2, 3 and 4 and compares the frequencies with
+    // 10%, 20%, 30% and 40%
+    public static void main(String[] args) {
+        String[] names = { "one", "two", "three", "four" };
+        AliasTable<String> table = new AliasTable<>(names, new double[] { 1, 2, 3, 4 });
+        int draws = 1000000;
+        int[] counts = new int[names.length];
+        for (int d = 0; d < draws; d++) {
+            String item = table.sample();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(item)) counts[i]++;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-5s weight %d: %.4f%n", names[i], i + 1, (double) counts[i] / draws);
+        }
+    }
+}
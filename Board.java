@@ -5,25 +5,123 @@
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.In;
-import edu.princeton.cs.algs4.Stack;
+import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
+// The tiles are stored row by row as one index per cell. Boards up to 4-by-4 pack them into a
+// single long, 4 bits per tile; larger boards keep a char per tile, since their tile numbers
+// outgrow a byte. Each board also caches the index of the blank and its hamming and manhattan
+// distances. A neighbor is made by moving one tile into the blank, which changes only that
+// tile's terms in the two distances, so neighbors() builds each neighbor in O(1) on packed
+// boards (one copy of the chars otherwise) without recomputing anything from scratch. The
+// same goes for the board's Zobrist hash, the XOR of a random key for each (tile, cell) pair,
+// which Solver uses to recognize boards it has already reached; the keys come from a mixing
+// function rather than a table, so they cost no memory for any n.
 public final class Board {
 
-    private final int[][] tiles;
+    // largest dimension whose tiles fit 4 bits each in a long
+    private static final int PACKED_MAX = 4;
+
     private final int n;
+    // tiles for n <= PACKED_MAX, the tile at index i in bits 4i to 4i + 3
+    private final long packed;
+    // tiles for larger n; null when packed is used
+    private final char[] cells;
+    // index of the blank, row * n + col
+    private final int blank;
+    private final int hamming;
+    private final int manhattan;
+    private final long zobrist;
 
     // create a board from an n-by-n array of tiles,
     // where tiles[row][col] = tile at (row, col)
     public Board(int[][] tiles) {
-        this.tiles = new int[tiles.length][tiles.length];
-        for (int i = 0; i < tiles.length; i++) {
-            for (int j = 0; j < tiles.length; j++) {
-                this.tiles[i][j] = tiles[i][j];
+        n = tiles.length;
+        long bits = 0;
+        char[] chars = n > PACKED_MAX ? new char[n * n] : null;
+        int blankIndex = 0;
+        int outOfPlace = 0;
+        int distance = 0;
+        long hash = 0;
+        for (int i = 0; i < n * n; i++) {
+            int tile = tiles[i / n][i % n];
+            if (chars == null) bits |= (long) tile << (4 * i);
+            else chars[i] = (char) tile;
+            if (tile == 0) {
+                blankIndex = i;
+            }
+            else {
+                if (tile != i + 1) outOfPlace++;
+                distance += distance(tile, i);
+                hash ^= zobristKey(tile, i);
             }
         }
-        n = tiles.length;
+        packed = bits;
+        cells = chars;
+        blank = blankIndex;
+        hamming = outOfPlace;
+        manhattan = distance;
+        zobrist = hash;
+    }
+
+    // the board after the tile at index from moves into the blank of board
+    private Board(Board board, int from) {
+        n = board.n;
+        int tile = board.tile(from);
+        if (board.cells == null) {
+            packed = board.packed ^ (long) tile << (4 * from) ^ (long) tile << (4 * board.blank);
+            cells = null;
+        }
+        else {
+            packed = 0;
+            cells = board.cells.clone();
+            cells[board.blank] = (char) tile;
+            cells[from] = 0;
+        }
+        blank = from;
+        hamming = board.hamming - (tile != from + 1 ? 1 : 0) + (tile != board.blank + 1 ? 1 : 0);
+        manhattan = board.manhattan - distance(tile, from) + distance(tile, board.blank);
+        zobrist = board.zobrist ^ zobristKey(tile, from) ^ zobristKey(tile, board.blank);
+    }
+
+    // index of the blank, row * n + col
+    int blank() {
+        return blank;
+    }
+
+    // the neighbor in which the tile at index from has moved into the blank
+    Board moved(int from) {
+        return new Board(this, from);
+    }
+
+    // random key for tile at index i (the splitmix64 finalizer)
+    private static long zobristKey(int tile, int i) {
+        long z = ((long) tile << 32 | i) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Zobrist hash of the tiles; equal boards have equal hashes, and two different boards
+    // share one with probability about 2^-64
+    long zobrist() {
+        return zobrist;
+    }
+
+    // tile at index i, row * n + col
+    int tile(int i) {
+        if (cells == null) return (int) (packed >>> (4 * i)) & 0xF;
+        return cells[i];
+    }
+
+    // Manhattan distance between index i and the goal index of tile
+    private int distance(int tile, int i) {
+        return Math.abs(i / n - (tile - 1) / n) + Math.abs(i % n - (tile - 1) % n);
     }
 
     // string representation of this board
@@ -32,7 +130,7 @@ public final class Board {
         s.append(n + "\n");
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                s.append(String.format("%d ", tiles[i][j]));
+                s.append(String.format("%d ", tile(i * n + j)));
             }
             s.append("\n");
         }
@@ -46,49 +144,18 @@ public final class Board {
 
     // number of tiles out of place
     public int hamming() {
-        int hamming = 0;
-        int tile = 1;
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (tiles[i][j] != 0 && tiles[i][j] != tile) hamming++;
-                tile++;
-            }
-        }
         return hamming;
     }
 
     // sum of Manhattan distances between tiles and goal
     public int manhattan() {
-        int manhattan = 0;
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (tiles[i][j] != 0) {
-                    int x = (tiles[i][j] - 1) / n;
-                    int y = (tiles[i][j] - 1) % n;
-                    int dx = i - x;
-                    int dy = j - y;
-                    manhattan += Math.abs(dx) + Math.abs(dy);
-                }
-            }
-        }
         return manhattan;
     }
 
     // is this board the goal board?
     public boolean isGoal() {
-        int tile = 1;
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                // check that last tile is 0
-                if (i == n - 1 && j == n - 1) {
-                    if (tiles[i][j] != 0) return false;
-                }
-                // check that every tile is in sequential order and that tile value corresponds to tile number
-                else if (tiles[i][j] != tile) return false;
-                tile++;
-            }
-        }
-        return true;
+        // with every tile in place, the blank can only be in the last cell
+        return hamming == 0;
     }
 
     // does this board equal y?
@@ -98,180 +165,218 @@ public final class Board {
         else if (this.getClass() != y.getClass()) return false;
 
         Board board = (Board) y;
-        if (this.n != board.n) return false;
+        return n == board.n && zobrist == board.zobrist && packed == board.packed
+                && Arrays.equals(cells, board.cells);
+    }
 
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (this.tiles[i][j] != board.tiles[i][j]) return false;
+    // hash code consistent with equals
+    public int hashCode() {
+        return (int) (zobrist ^ (zobrist >>> 32));
+    }
+
+    // can the board reach the goal? Read row by row without the blank, the tiles form a
+    // permutation whose parity a horizontal move never changes. A vertical move carries a tile
+    // past n - 1 others, which changes the parity when n is even and not when n is odd. So for
+    // odd n the permutation must be even, as the goal's is, and for even n its parity must
+    // match the parity of the number of rows between the blank and the last row.
+    boolean isSolvable() {
+        int[] permutation = new int[n * n - 1];
+        int k = 0;
+        for (int i = 0; i < n * n; i++) {
+            if (i != blank) permutation[k++] = tile(i) - 1;
+        }
+        // a permutation of m items with c cycles is a product of m - c transpositions
+        boolean[] visited = new boolean[permutation.length];
+        int cycles = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            if (visited[i]) continue;
+            cycles++;
+            for (int j = i; !visited[j]; j = permutation[j]) {
+                visited[j] = true;
             }
         }
-        return true;
-
+        int parity = (permutation.length - cycles) % 2;
+        if (n % 2 == 1) return parity == 0;
+        return parity == (n - 1 - blank / n) % 2;
+    }
 
+    // all neighboring boards (neighbors are any board in which exactly one tile has been
+    // switched with the empty ("0") tile); each is made as the iterator reaches it
+    public Iterable<Board> neighbors() {
+        return NeighborIterator::new;
     }
 
-    // create all possible neighbors of a board (neighbors are any board in which exactly one tile
-    // has been switched with the empty ("0") tile
-    private Iterator<Board> makeNeighbors() {
-        Stack<Board> neighbors = new Stack<>();
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (tiles[i][j] == 0) {
-                    if (i == 0) {
-                        if (j == 0) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j + 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i + 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                        }
-                        else if (j == tiles.length - 1) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j - 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i + 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                        }
-                        else {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j - 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i + 1, j);
-                            Board board3 = new Board(tiles);
-                            exch(board3, i, j, i, j + 1);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                            neighbors.push(board3);
-                        }
-                        break;
-                    }
-                    else if (i == tiles.length - 1) {
-                        if (j == 0) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j + 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i - 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                        }
-                        else if (j == tiles.length - 1) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j - 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i - 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                        }
-                        else {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j - 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i - 1, j);
-                            Board board3 = new Board(tiles);
-                            exch(board3, i, j, i, j + 1);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                            neighbors.push(board3);
-                        }
-                        break;
-                    }
-                    else {
-                        if (j == 0) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j + 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i + 1, j);
-                            Board board3 = new Board(tiles);
-                            exch(board3, i, j, i - 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                            neighbors.push(board3);
-                        }
-                        else if (j == tiles.length - 1) {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j - 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i + 1, j);
-                            Board board3 = new Board(tiles);
-                            exch(board3, i, j, i - 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                            neighbors.push(board3);
-                        }
-                        else {
-                            Board board1 = new Board(tiles);
-                            exch(board1, i, j, i, j + 1);
-                            Board board2 = new Board(tiles);
-                            exch(board2, i, j, i, j - 1);
-                            Board board3 = new Board(tiles);
-                            exch(board3, i, j, i + 1, j);
-                            Board board4 = new Board(tiles);
-                            exch(board4, i, j, i - 1, j);
-                            neighbors.push(board1);
-                            neighbors.push(board2);
-                            neighbors.push(board3);
-                            neighbors.push(board4);
-                        }
-                        break;
-                    }
-                }
-            }
+    // index of the tile that moves into the blank in direction d (up, down, left, right), or
+    // -1 if the blank is on that edge
+    private int neighbor(int d) {
+        switch (d) {
+            case 0:
+                return blank >= n ? blank - n : -1;
+            case 1:
+                return blank < n * n - n ? blank + n : -1;
+            case 2:
+                return blank % n > 0 ? blank - 1 : -1;
+            default:
+                return blank % n < n - 1 ? blank + 1 : -1;
         }
-        return neighbors.iterator();
     }
 
-    // all neighboring boards
-    public Iterable<Board> neighbors() {
-        return new Iterable<Board>() {
+    private class NeighborIterator implements Iterator<Board> {
 
-            @Override
-            public Iterator<Board> iterator() {
-                return makeNeighbors();
-            }
-        };
+        // next direction to try, 4 when there are none left
+        private int direction = skip(0);
+
+        @Override
+        public boolean hasNext() {
+            return direction < 4;
+        }
+
+        @Override
+        public Board next() {
+            if (direction >= 4) throw new NoSuchElementException("No more neighbors");
+            Board board = new Board(Board.this, neighbor(direction));
+            direction = skip(direction + 1);
+            return board;
+        }
+
+        // first direction from d on with a tile to move
+        private int skip(int d) {
+            while (d < 4 && neighbor(d) < 0) d++;
+            return d;
+        }
     }
 
     // a board that is obtained by exchanging any pair of tiles
     public Board twin() {
-        Board board = new Board(tiles);
-        int randomNumber = 0;
-        if (board.tiles[randomNumber][randomNumber] == 0) {
-            randomNumber = 1;
+        // the first two cells of the first row, or of the second if the blank is in the way
+        int i = blank < 2 ? n : 0;
+        int[][] tiles = tiles();
+        int swap = tiles[i / n][i % n];
+        tiles[i / n][i % n] = tiles[i / n][i % n + 1];
+        tiles[i / n][i % n + 1] = swap;
+        return new Board(tiles);
+    }
+
+    // the tiles as an n-by-n array
+    private int[][] tiles() {
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < n * n; i++) {
+            tiles[i / n][i % n] = tile(i);
         }
-        // ensure that neither of the tiles being switched are the empty tile
-        if (randomNumber == 0) {
-            if (board.tiles[randomNumber + 1][randomNumber] == 0) {
-                exch(board, randomNumber, randomNumber, randomNumber, randomNumber + 1);
-            }
-            else if (board.tiles[randomNumber][randomNumber + 1] == 0) {
-                exch(board, randomNumber, randomNumber, randomNumber + 1, randomNumber);
-            }
-            else {
-                exch(board, randomNumber, randomNumber, randomNumber, randomNumber + 1);
+        return tiles;
+    }
+
+    // checks isSolvable() against brute force: every 2-by-2 board and random 3-by-3 boards
+    // against the set of boards a breadth-first search reaches from the goal, and 4-by-4
+    // boards made by random walks from the goal (reachable by construction) along with their
+    // twins (unreachable, since a swap flips the parity); returns the number of disagreements
+    private static int checkSolvability() {
+        int disagree = 0;
+        for (int n = 2; n <= 3; n++) {
+            HashSet<Board> reachable = reachable(goal(n));
+            int boards = 0;
+            int[] order = new int[n * n];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            int[] ranks = new int[n * n];
+            // every arrangement of the 2-by-2, 20000 random ones of the 3-by-3
+            int count = n == 2 ? 24 : 20000;
+            for (int b = 0; b < count; b++) {
+                if (n == 2) {
+                    // the b-th permutation in the factorial number system
+                    int code = b;
+                    for (int i = 0; i < ranks.length; i++) {
+                        ranks[i] = code % (ranks.length - i);
+                        code /= ranks.length - i;
+                    }
+                    order = unrank(ranks);
+                }
+                else {
+                    StdRandom.shuffle(order);
+                }
+                Board board = fromOrder(order, n);
+                for (Board each : new Board[] { board, board.twin() }) {
+                    boards++;
+                    if (each.isSolvable() != reachable.contains(each)) disagree++;
+                }
             }
+            System.out.println(n + "x" + n + ": " + boards + " boards, "
+                                       + reachable.size() + " reachable, " + disagree
+                                       + " disagree so far");
         }
-        else {
-            if (board.tiles[randomNumber - 1][randomNumber] == 0) {
-                exch(board, randomNumber, randomNumber, randomNumber, randomNumber - 1);
-            }
-            else {
-                exch(board, randomNumber, randomNumber, randomNumber - 1, randomNumber);
+        int walks = 2000;
+        for (int w = 0; w < walks; w++) {
+            Board board = goal(4);
+            int steps = StdRandom.uniform(1, 200);
+            for (int s = 0; s < steps; s++) {
+                board = board.moved(board.randomNeighbor());
             }
+            if (!board.isSolvable()) disagree++;
+            if (board.twin().isSolvable()) disagree++;
+        }
+        System.out.println("4x4: " + 2 * walks + " boards, " + disagree + " disagree");
+        return disagree;
+    }
+
+    // index of a random tile next to the blank
+    private int randomNeighbor() {
+        while (true) {
+            int from = neighbor(StdRandom.uniform(4));
+            if (from >= 0) return from;
         }
-        return board;
     }
 
+    // the solved n-by-n board
+    private static Board goal(int n) {
+        int[] order = new int[n * n];
+        for (int i = 0; i < order.length - 1; i++) order[i] = i + 1;
+        return fromOrder(order, n);
+    }
+
+    // board whose cells, row by row, hold the tiles in order
+    private static Board fromOrder(int[] order, int n) {
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < order.length; i++) tiles[i / n][i % n] = order[i];
+        return new Board(tiles);
+    }
 
-    private void exch(Board a, int i, int k, int j, int m) {
-        int temp = a.tiles[i][k];
-        a.tiles[i][k] = a.tiles[j][m];
-        a.tiles[j][m] = temp;
+    // permutation whose i-th entry is the ranks[i]-th smallest of the values still unused
+    private static int[] unrank(int[] ranks) {
+        int[] order = new int[ranks.length];
+        boolean[] used = new boolean[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            int value = -1;
+            for (int skip = ranks[i]; skip >= 0; skip--) {
+                do value++;
+                while (used[value]);
+            }
+            order[i] = value;
+            used[value] = true;
+        }
+        return order;
     }
 
-    // unit testing (not graded)
+    // every board a breadth-first search reaches from start
+    private static HashSet<Board> reachable(Board start) {
+        HashSet<Board> seen = new HashSet<>();
+        ArrayDeque<Board> queue = new ArrayDeque<>();
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            for (Board neighbor : queue.remove().neighbors()) {
+                if (seen.add(neighbor)) queue.add(neighbor);
+            }
+        }
+        return seen;
+    }
+
+    // unit testing (not graded): java Board checks isSolvable() against brute force, java Board
+    // file prints the board in file and its twins
     public static void main(String[] args) {
+        if (args.length == 0) {
+            int disagree = checkSolvability();
+            if (disagree > 0) throw new IllegalStateException(disagree + " boards disagree");
+            return;
+        }
         In in = new In(args[0]);
         int n = in.readInt();
         int[][] tiles = new int[n][n];
@@ -0,0 +1,152 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Bond percolation
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+public class BondPercolation {
+
+    // bit flags kept on union-find roots, as in Percolation: whether any site of the
+    // component lies on the top or bottom row
+    private static final byte TOP = 1;
+    private static final byte BOTTOM = 2;
+    private static final byte SPANNING = TOP | BOTTOM;
+
+    private final Lattice lattice;
+    private final int[] from;
+    private final int[] to;
+    private final int[] parent;
+    private final byte[] rank;
+    private final byte[] status;
+    private final long[] openBonds;
+    private int openCount;
+    private boolean percolates;
+
+    // creates the bonds of the given lattice, all initially closed; every site is present,
+    // and two sites are connected when an open bond joins them
+    public BondPercolation(Lattice lattice) {
+        if (lattice == null) throw new IllegalArgumentException("lattice must not be null");
+        this.lattice = lattice;
+        int[][] ends = lattice.bondEnds();
+        from = ends[0];
+        to = ends[1];
+        int sites = lattice.sites();
+        parent = new int[sites];
+        rank = new byte[sites];
+        status = new byte[sites];
+        for (int i = 0; i < sites; i++) {
+            parent[i] = i;
+        }
+        int rowSize = sites / lattice.rows();
+        for (int i = 0; i < rowSize; i++) {
+            status[i] |= TOP;
+            status[sites - rowSize + i] |= BOTTOM;
+        }
+        openBonds = new long[(from.length + 63) >>> 6];
+        openCount = 0;
+        percolates = lattice.rows() == 1;
+    }
+
+    // checks whether the bond index provided is valid
+    private void validBond(int bond) {
+        if (bond < 0 || bond >= from.length) {
+            throw new IllegalArgumentException("Invalid entry for bond...bond = " + bond);
+        }
+    }
+
+    // checks whether the site index provided is valid
+    private void validSite(int site) {
+        if (site < 0 || site >= parent.length) {
+            throw new IllegalArgumentException("Invalid entry for site...site = " + site);
+        }
+    }
+
+    // root of the component containing site, halving the path on the way up
+    private int find(int site) {
+        while (parent[site] != site) {
+            parent[site] = parent[parent[site]];
+            site = parent[site];
+        }
+        return site;
+    }
+
+    // opens the bond if it is not open already, joining the two sites it connects
+    public void open(int bond) {
+        validBond(bond);
+        long mask = 1L << bond;
+        if ((openBonds[bond >>> 6] & mask) != 0) return;
+        openBonds[bond >>> 6] |= mask;
+        openCount++;
+        int rootP = find(from[bond]);
+        int rootQ = find(to[bond]);
+        if (rootP == rootQ) return;
+        int root;
+        if (rank[rootP] < rank[rootQ]) {
+            parent[rootP] = rootQ;
+            root = rootQ;
+        }
+        else {
+            parent[rootQ] = rootP;
+            if (rank[rootP] == rank[rootQ]) rank[rootP]++;
+            root = rootP;
+        }
+        status[root] = (byte) (status[rootP] | status[rootQ]);
+        if ((status[root] & SPANNING) == SPANNING) percolates = true;
+    }
+
+    // is the bond open?
+    public boolean isOpen(int bond) {
+        validBond(bond);
+        return (openBonds[bond >>> 6] & (1L << bond)) != 0;
+    }
+
+    // is the site connected to the top row through open bonds?
+    public boolean isFull(int site) {
+        validSite(site);
+        return (status[find(site)] & TOP) != 0;
+    }
+
+    // first site joined by the bond
+    public int from(int bond) {
+        validBond(bond);
+        return from[bond];
+    }
+
+    // second site joined by the bond
+    public int to(int bond) {
+        validBond(bond);
+        return to[bond];
+    }
+
+    // returns the number of bonds
+    public int bonds() {
+        return from.length;
+    }
+
+    // returns the number of open bonds
+    public int numberOfOpenBonds() {
+        return openCount;
+    }
+
+    // lattice the bonds are laid on
+    public Lattice lattice() {
+        return lattice;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // test client: opens bonds of an n-by-n lattice in random order until it percolates
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        BondPercolation perc = new BondPercolation(Lattice.square(n));
+        while (!perc.percolates()) {
+            perc.open(StdRandom.uniform(perc.bonds()));
+        }
+        System.out.println((double) perc.numberOfOpenBonds() / perc.bonds());
+    }
+}
@@ -0,0 +1,361 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Bounded blocking deque
+ **************************************************************************** */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Deque with a fixed capacity for producer and consumer threads: puts wait while it is full
+// and takes wait while it is empty, so producers cannot run ahead of consumers by more than
+// capacity items. The items sit in a circular array of exactly capacity slots, allocated up
+// front, guarded by one lock with a condition for each way of waiting. drainTo moves a batch
+// of items out under a single acquisition of the lock, which is what makes it cheaper than a
+// take per item when consumers fall behind.
+public class BoundedBlockingDeque<Item> implements Iterable<Item> {
+
+    private final Item[] items;
+    private int head;
+    private int size;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // construct an empty deque that holds at most capacity items
+    public BoundedBlockingDeque(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        items = (Item[]) new Object[capacity];
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // return the number of items that can be added before the deque is full
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return items.length - size;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front, waiting for space if the deque is full
+    public void putFirst(Item item) throws InterruptedException {
+        checkItem(item);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) notFull.await();
+            linkFirst(item);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back, waiting for space if the deque is full
+    public void putLast(Item item) throws InterruptedException {
+        checkItem(item);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) notFull.await();
+            linkLast(item);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front if there is space; return whether it was added
+    public boolean offerFirst(Item item) {
+        checkItem(item);
+        lock.lock();
+        try {
+            if (size == items.length) return false;
+            linkFirst(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back if there is space; return whether it was added
+    public boolean offerLast(Item item) {
+        checkItem(item);
+        lock.lock();
+        try {
+            if (size == items.length) return false;
+            linkLast(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the front, waiting up to the timeout for space; return whether it was
+    // added
+    public boolean offerFirst(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkItem(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            linkFirst(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // add the item to the back, waiting up to the timeout for space; return whether it was
+    // added
+    public boolean offerLast(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkItem(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) {
+                if (nanos <= 0) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            linkLast(item);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the front, waiting for one if the deque is empty
+    public Item takeFirst() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) notEmpty.await();
+            return unlinkFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, waiting for one if the deque is empty
+    public Item takeLast() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) notEmpty.await();
+            return unlinkLast();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the front, waiting up to the timeout for one; null if
+    // the deque is still empty
+    public Item pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return unlinkFirst();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // remove and return the item from the back, waiting up to the timeout for one; null if
+    // the deque is still empty
+    public Item pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return unlinkLast();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // move up to max items from the front to the collection, in order, without waiting;
+    // return the number moved
+    public int drainTo(Collection<? super Item> collection, int max) {
+        if (collection == null) throw new IllegalArgumentException("Please enter a collection");
+        if (max < 0) throw new IllegalArgumentException("max must not be negative");
+        lock.lock();
+        try {
+            int n = Math.min(max, size);
+            for (int i = 0; i < n; i++) {
+                collection.add(items[head]);
+                items[head] = null;
+                head = head + 1 == items.length ? 0 : head + 1;
+                size--;
+            }
+            // every waiting producer may now have room
+            if (n > 0) notFull.signalAll();
+            return n;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkItem(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+    }
+
+    // the four below are called with the lock held and the deque not full or not empty
+
+    private void linkFirst(Item item) {
+        head = head == 0 ? items.length - 1 : head - 1;
+        items[head] = item;
+        size++;
+        notEmpty.signal();
+    }
+
+    private void linkLast(Item item) {
+        items[slot(size)] = item;
+        size++;
+        notEmpty.signal();
+    }
+
+    private Item unlinkFirst() {
+        Item item = items[head];
+        items[head] = null;
+        head = head + 1 == items.length ? 0 : head + 1;
+        size--;
+        notFull.signal();
+        return item;
+    }
+
+    private Item unlinkLast() {
+        int tail = slot(size - 1);
+        Item item = items[tail];
+        items[tail] = null;
+        size--;
+        notFull.signal();
+        return item;
+    }
+
+    // index in items of the i-th item from the front
+    private int slot(int i) {
+        int untilEnd = items.length - head;
+        return i < untilEnd ? head + i : i - untilEnd;
+    }
+
+    // return an iterator over a snapshot of the items, front to back, taken under the lock;
+    // later changes to the deque do not affect it
+    public Iterator<Item> iterator() {
+        lock.lock();
+        try {
+            Object[] snapshot = new Object[size];
+            for (int i = 0; i < size; i++) {
+                snapshot[i] = items[slot(i)];
+            }
+            return new SnapshotIterator(snapshot);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private class SnapshotIterator implements Iterator<Item> {
+
+        private final Object[] snapshot;
+        private int cursor;
+
+        SnapshotIterator(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < snapshot.length;
+        }
+
+        @Override
+        public Item next() {
+            if (cursor >= snapshot.length) {
+                throw new NoSuchElementException("No more items in iterator");
+            }
+            return (Item) snapshot[cursor++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+    }
+
+    // unit testing: producers put through a small deque while a consumer drains it in
+    // batches, then the sum of everything drained is checked
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perProducer = 250000;
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(64);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final boolean front = p % 2 == 0;
+            threads[p] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        if (front) deque.putFirst(1);
+                        else deque.putLast(1);
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[p].start();
+        }
+        long total = (long) producers * perProducer;
+        long drained = 0;
+        ArrayList<Integer> batch = new ArrayList<>();
+        while (drained < total) {
+            Integer first = deque.pollFirst(1, TimeUnit.SECONDS);
+            if (first == null) break;
+            batch.add(first);
+            deque.drainTo(batch, 255);
+            for (int item : batch) drained += item;
+            batch.clear();
+        }
+        for (Thread thread : threads) thread.join();
+        System.out.println("put = " + total + ", drained = " + drained + ", left = "
+                                   + deque.size());
+    }
+}
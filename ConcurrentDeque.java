@@ -0,0 +1,297 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Lock-free deque
+ **************************************************************************** */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Maged Michael's CAS-based deque ("CAS-Based Lock-Free Algorithm for Shared Deques", 2003).
+// Both ends and a status word sit in one immutable Anchor that is swapped with a single CAS, so
+// every operation commits by winning that CAS. A push first swings the anchor to the new node
+// with status RPUSH or LPUSH, then links the old end node to it; any thread that finds the
+// anchor in a push state finishes that link ("stabilizes") before trying its own operation.
+// Anchors are fresh objects, so comparing them by identity cannot suffer from ABA. The links
+// and the anchor are plain volatile fields updated through VarHandles, which keeps a node to a
+// single allocation.
+public class ConcurrentDeque<Item> implements Iterable<Item> {
+
+    private static final int STABLE = 0;
+    private static final int RPUSH = 1;
+    private static final int LPUSH = 2;
+
+    private static final VarHandle ANCHOR;
+    private static final VarHandle LEFT;
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ANCHOR = lookup.findVarHandle(ConcurrentDeque.class, "anchor", Anchor.class);
+            LEFT = lookup.findVarHandle(Node.class, "left", Node.class);
+            RIGHT = lookup.findVarHandle(Node.class, "right", Node.class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Node<Item> {
+        private volatile Item item;
+        private volatile Node<Item> left;
+        private volatile Node<Item> right;
+
+        Node(Item item) {
+            this.item = item;
+        }
+    }
+
+    private static final class Anchor<Item> {
+        private final Node<Item> left;
+        private final Node<Item> right;
+        private final int status;
+
+        Anchor(Node<Item> left, Node<Item> right, int status) {
+            this.left = left;
+            this.right = right;
+            this.status = status;
+        }
+    }
+
+    private volatile Anchor<Item> anchor = new Anchor<>(null, null, STABLE);
+
+    // construct an empty deque
+    public ConcurrentDeque() {
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return anchor.right == null;
+    }
+
+    // return the number of items on the deque; this walks the deque, so it takes linear time
+    // and is only a snapshot if other threads are modifying the deque
+    public int size() {
+        int count = 0;
+        for (Item item : this) {
+            count++;
+        }
+        return count;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        Node<Item> node = new Node<>(item);
+        while (true) {
+            Anchor<Item> a = anchor;
+            if (a.left == null) {
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(node, node, STABLE))) return;
+            }
+            else if (a.status == STABLE) {
+                node.right = a.left;
+                Anchor<Item> pushed = new Anchor<>(node, a.right, LPUSH);
+                if (ANCHOR.compareAndSet(this, a, pushed)) {
+                    stabilizeLeft(pushed);
+                    return;
+                }
+            }
+            else {
+                stabilize(a);
+            }
+        }
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        Node<Item> node = new Node<>(item);
+        while (true) {
+            Anchor<Item> a = anchor;
+            if (a.right == null) {
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(node, node, STABLE))) return;
+            }
+            else if (a.status == STABLE) {
+                node.left = a.right;
+                Anchor<Item> pushed = new Anchor<>(a.left, node, RPUSH);
+                if (ANCHOR.compareAndSet(this, a, pushed)) {
+                    stabilizeRight(pushed);
+                    return;
+                }
+            }
+            else {
+                stabilize(a);
+            }
+        }
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        while (true) {
+            Anchor<Item> a = anchor;
+            if (a.left == null) throw new NoSuchElementException("Deque is empty");
+            if (a.left == a.right) {
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(null, null, STABLE))) {
+                    return take(a.left);
+                }
+            }
+            else if (a.status == STABLE) {
+                Node<Item> next = a.left.right;
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(next, a.right, STABLE))) {
+                    return take(a.left);
+                }
+            }
+            else {
+                stabilize(a);
+            }
+        }
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        while (true) {
+            Anchor<Item> a = anchor;
+            if (a.right == null) throw new NoSuchElementException("Deque is empty");
+            if (a.left == a.right) {
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(null, null, STABLE))) {
+                    return take(a.right);
+                }
+            }
+            else if (a.status == STABLE) {
+                Node<Item> prev = a.right.left;
+                if (ANCHOR.compareAndSet(this, a, new Anchor<>(a.left, prev, STABLE))) {
+                    return take(a.right);
+                }
+            }
+            else {
+                stabilize(a);
+            }
+        }
+    }
+
+    // returns the item of a node this thread just unlinked, clearing it so that neither the
+    // garbage collector nor a lagging iterator holds on to it
+    private Item take(Node<Item> node) {
+        Item item = node.item;
+        node.item = null;
+        return item;
+    }
+
+    private void stabilize(Anchor<Item> a) {
+        if (a.status == RPUSH) stabilizeRight(a);
+        else stabilizeLeft(a);
+    }
+
+    // links the node before the new right end to it, then marks the anchor stable
+    private void stabilizeRight(Anchor<Item> a) {
+        Node<Item> prev = a.right.left;
+        if (anchor != a) return;
+        Node<Item> prevNext = prev.right;
+        if (prevNext != a.right) {
+            if (anchor != a) return;
+            if (!RIGHT.compareAndSet(prev, prevNext, a.right)) return;
+        }
+        ANCHOR.compareAndSet(this, a, new Anchor<>(a.left, a.right, STABLE));
+    }
+
+    // links the node after the new left end to it, then marks the anchor stable
+    private void stabilizeLeft(Anchor<Item> a) {
+        Node<Item> next = a.left.right;
+        if (anchor != a) return;
+        Node<Item> nextPrev = next.left;
+        if (nextPrev != a.left) {
+            if (anchor != a) return;
+            if (!LEFT.compareAndSet(next, nextPrev, a.left)) return;
+        }
+        ANCHOR.compareAndSet(this, a, new Anchor<>(a.left, a.right, STABLE));
+    }
+
+    // return an iterator over items in order from front to back; the iterator is weakly
+    // consistent: it never throws ConcurrentModificationException, it returns every item
+    // that stays on the deque for the whole iteration, and it may or may not return items
+    // added or removed while it runs
+    public Iterator<Item> iterator() {
+        return new WeakIterator();
+    }
+
+    private class WeakIterator implements Iterator<Item> {
+
+        private Node<Item> current;
+        private final Node<Item> last;
+        private Item nextItem;
+
+        public WeakIterator() {
+            Anchor<Item> a = anchor;
+            // finish a pending push so the walk from the left reaches the right end
+            if (a.status != STABLE) {
+                stabilize(a);
+            }
+            current = a.left;
+            last = a.right;
+            advance();
+        }
+
+        // moves to the next node that still holds an item
+        private void advance() {
+            nextItem = null;
+            while (current != null && nextItem == null) {
+                nextItem = current.item;
+                current = current == last ? null : current.right;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextItem != null;
+        }
+
+        @Override
+        public Item next() {
+            if (nextItem == null) throw new NoSuchElementException("No more items in iterator");
+            Item item = nextItem;
+            advance();
+            return item;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+    }
+
+    // unit testing: producers push on both ends while consumers pop from both ends, then the
+    // sum of everything popped is checked
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = 200000;
+        ConcurrentDeque<Integer> deque = new ConcurrentDeque<>();
+        AtomicLong popped = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                long sum = 0;
+                for (int i = 0; i < perThread; i++) {
+                    if ((i + id) % 2 == 0) deque.addFirst(1);
+                    else deque.addLast(1);
+                    try {
+                        sum += (i % 3 == 0) ? deque.removeLast() : deque.removeFirst();
+                    }
+                    catch (NoSuchElementException e) {
+                        // another thread got there first
+                    }
+                }
+                popped.addAndGet(sum);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        long remaining = deque.size();
+        System.out.println("pushed = " + (long) threads * perThread + ", popped + remaining = "
+                                   + (popped.get() + remaining));
+    }
+}
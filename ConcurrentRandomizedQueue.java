@@ -0,0 +1,316 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Thread-safe randomized queue with striped storage
+ **************************************************************************** */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The items are spread over independent stripes, each an array with its own lock, so threads
+// only contend when they touch the same stripe. A thread enqueues onto its home stripe
+// (chosen from its thread id), moving to a random stripe if that one is locked. dequeue and
+// sample read every stripe's size without locking, pick a stripe with probability
+// proportional to its size, lock it and take a uniformly random item from it: with no
+// concurrent modification each item is chosen with probability exactly 1 / size(). Under
+// concurrency the size scan can be stale by the operations that complete between the scan
+// and the lock, which skews the choice towards or away from those stripes by at most that
+// many items; a stripe found empty after locking is skipped and the draw is repeated. A scan
+// that finds every stripe empty can also be stale (a thread preempted between two reads can
+// miss items moving from an unread stripe to a read one), so emptiness is confirmed with all
+// the stripe locks held before dequeue or sample throws. All randomness comes from
+// ThreadLocalRandom.
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+
+    // smallest capacity a stripe's array shrinks back to
+    private static final int MIN_CAPACITY = 8;
+
+    private static final class Stripe<Item> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Item[] items = (Item[]) new Object[MIN_CAPACITY];
+        // written under the lock, read without it by the size scans
+        private volatile int size;
+
+        // add the item; the caller holds the lock
+        void add(Item item) {
+            if (size == items.length) resize(items.length * 2);
+            items[size] = item;
+            size = size + 1;
+        }
+
+        // remove a random item, which the last item replaces; the caller holds the lock
+        Item removeRandom(ThreadLocalRandom random) {
+            int n = size;
+            int index = random.nextInt(n);
+            Item item = items[index];
+            items[index] = items[n - 1];
+            items[n - 1] = null;
+            size = n - 1;
+            if (items.length > MIN_CAPACITY && n - 1 <= items.length / 4) {
+                resize(items.length / 2);
+            }
+            return item;
+        }
+
+        private void resize(int capacity) {
+            Item[] copy = (Item[]) new Object[capacity];
+            System.arraycopy(items, 0, copy, 0, size);
+            items = copy;
+        }
+    }
+
+    private final Stripe<Item>[] stripes;
+
+    // construct an empty queue with two stripes per available processor
+    public ConcurrentRandomizedQueue() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    // construct an empty queue with the given number of stripes
+    public ConcurrentRandomizedQueue(int stripeCount) {
+        if (stripeCount < 1) throw new IllegalArgumentException("stripeCount must be positive");
+        stripes = (Stripe<Item>[]) new Stripe<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    // is the queue empty? a snapshot if other threads are modifying the queue
+    public boolean isEmpty() {
+        for (Stripe<Item> stripe : stripes) {
+            if (stripe.size > 0) return false;
+        }
+        return true;
+    }
+
+    // return the number of items on the queue; a snapshot if other threads are modifying it
+    public int size() {
+        long total = 0;
+        for (Stripe<Item> stripe : stripes) {
+            total += stripe.size;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    // add the item
+    public void enqueue(Item item) {
+        if (item == null)
+            throw new IllegalArgumentException("Please enter a valid item to enqueue");
+        Stripe<Item> stripe = stripes[homeStripe()];
+        if (!stripe.lock.tryLock()) {
+            stripe = stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+            stripe.lock.lock();
+        }
+        try {
+            stripe.add(item);
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // remove and return a random item
+    public Item dequeue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Stripe<Item> stripe = pickStripe(random);
+            if (stripe == null) throw new NoSuchElementException("Queue is empty");
+            stripe.lock.lock();
+            try {
+                if (stripe.size > 0) return stripe.removeRandom(random);
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // return a random item (but do not remove it)
+    public Item sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Stripe<Item> stripe = pickStripe(random);
+            if (stripe == null) throw new NoSuchElementException("Queue is empty");
+            stripe.lock.lock();
+            try {
+                if (stripe.size > 0) return stripe.items[random.nextInt(stripe.size)];
+            }
+            finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    // a stripe chosen with probability proportional to its size, or null if the queue is
+    // empty; the sizes are read twice rather than copied, and if they shrank in between, the
+    // last stripe is returned and the caller's check under the lock decides
+    private Stripe<Item> pickStripe(ThreadLocalRandom random) {
+        long total = 0;
+        while (total == 0) {
+            for (Stripe<Item> stripe : stripes) {
+                total += stripe.size;
+            }
+            if (total == 0 && isEmptyLocked()) return null;
+        }
+        long r = random.nextLong(total);
+        for (Stripe<Item> stripe : stripes) {
+            r -= stripe.size;
+            if (r < 0) return stripe;
+        }
+        return stripes[stripes.length - 1];
+    }
+
+    // is every stripe empty while all of them are locked? stripes are locked in index order,
+    // and no other operation holds more than one lock, so this cannot deadlock
+    private boolean isEmptyLocked() {
+        int locked = 0;
+        try {
+            for (Stripe<Item> stripe : stripes) {
+                stripe.lock.lock();
+                locked++;
+                if (stripe.size > 0) return false;
+            }
+            return true;
+        }
+        finally {
+            for (int i = 0; i < locked; i++) {
+                stripes[i].lock.unlock();
+            }
+        }
+    }
+
+    // index of the calling thread's stripe
+    private int homeStripe() {
+        long h = Thread.currentThread().getId() * 0x9e3779b97f4a7c15L;
+        return (int) ((h >>> 32) % stripes.length);
+    }
+
+    // return an iterator over the items in uniformly random order; it copies one stripe at a
+    // time under that stripe's lock, so it is not an atomic snapshot of the whole queue when
+    // other threads are modifying it
+    public Iterator<Item> iterator() {
+        return new RandomIterator();
+    }
+
+    private class RandomIterator implements Iterator<Item> {
+
+        private final Object[] copy;
+        private int cursor;
+
+        public RandomIterator() {
+            Object[] all = new Object[Math.max(size(), MIN_CAPACITY)];
+            int n = 0;
+            for (Stripe<Item> stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (n + stripe.size > all.length) {
+                        Object[] bigger = new Object[Math.max(2 * all.length, n + stripe.size)];
+                        System.arraycopy(all, 0, bigger, 0, n);
+                        all = bigger;
+                    }
+                    System.arraycopy(stripe.items, 0, all, n, stripe.size);
+                    n += stripe.size;
+                }
+                finally {
+                    stripe.lock.unlock();
+                }
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Object swap = all[i];
+                all[i] = all[j];
+                all[j] = swap;
+            }
+            copy = n == all.length ? all : Arrays.copyOf(all, n);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < copy.length;
+        }
+
+        @Override
+        public Item next() {
+            if (cursor >= copy.length) throw new NoSuchElementException("Queue is empty");
+            Item item = (Item) copy[cursor];
+            copy[cursor++] = null;
+            return item;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+    }
+
+    // unit testing: threads enqueue and dequeue concurrently, then the totals are checked;
+    // after that, sample() and dequeue() are checked for uniformity with a chi-square test on
+    // a queue whose items were spread unevenly over the stripes
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = 200000;
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<>(8);
+        AtomicLong dequeued = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                long sum = 0;
+                for (int i = 0; i < perThread; i++) {
+                    queue.enqueue(1);
+                    if (i % 2 == 0) {
+                        try {
+                            sum += queue.dequeue();
+                        }
+                        catch (NoSuchElementException e) {
+                            // another thread emptied the queue first
+                        }
+                    }
+                }
+                dequeued.addAndGet(sum);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        System.out.println("enqueued = " + (long) threads * perThread + ", dequeued + remaining = "
+                                   + (dequeued.get() + queue.size()));
+
+        // 10 items, 1 on one stripe and 9 on another
+        int n = 10;
+        int draws = 1000000;
+        ConcurrentRandomizedQueue<Integer> uneven = new ConcurrentRandomizedQueue<>(4);
+        uneven.stripes[0].add(0);
+        for (int i = 1; i < n; i++) {
+            uneven.stripes[1].add(i);
+        }
+        int[] sampled = new int[n];
+        int[] first = new int[n];
+        for (int d = 0; d < draws; d++) {
+            sampled[uneven.sample()]++;
+        }
+        for (int d = 0; d < draws / 10; d++) {
+            int item = uneven.dequeue();
+            first[item]++;
+            uneven.enqueue(item);
+        }
+        // critical value of chi-square with 9 degrees of freedom at p = 0.001
+        System.out.printf("sample chi2 = %.1f, dequeue chi2 = %.1f (uniform if below 27.9)%n",
+                          chiSquare(sampled), chiSquare(first));
+    }
+
+    // chi-square statistic of the counts against a uniform distribution
+    private static double chiSquare(int[] counts) {
+        long total = 0;
+        for (int count : counts) total += count;
+        double expected = (double) total / counts.length;
+        double chi2 = 0;
+        for (int count : counts) {
+            chi2 += (count - expected) * (count - expected) / expected;
+        }
+        return chi2;
+    }
+}
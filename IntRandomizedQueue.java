@@ -0,0 +1,131 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Randomized queue of ints backed by an int array
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// RandomizedQueue without the boxing: 4 bytes per item instead of a reference plus a 16-byte
+// Integer. As in IntDeque, the capacity is not rounded to a power of two, so a queue
+// constructed with room for n items holds exactly n ints until it has to grow.
+public class IntRandomizedQueue implements Iterable<Integer> {
+
+    // smallest capacity the array shrinks back to
+    private static final int MIN_CAPACITY = 8;
+    // largest array most JVMs will allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    // the items are items[0..size), in no particular order
+    private int[] items;
+    private final int minCapacity;
+    private int size;
+
+    // construct an empty randomized queue
+    public IntRandomizedQueue() {
+        this(MIN_CAPACITY);
+    }
+
+    // construct an empty randomized queue with room for capacity items before it grows; it
+    // never shrinks below that
+    public IntRandomizedQueue(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 0 and " + MAX_CAPACITY);
+        }
+        minCapacity = Math.max(capacity, MIN_CAPACITY);
+        items = new int[minCapacity];
+    }
+
+    // is the randomized queue empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the randomized queue
+    public int size() {
+        return size;
+    }
+
+    // add the item
+    public void enqueue(int item) {
+        if (size == items.length) {
+            if (size == MAX_CAPACITY) throw new IllegalStateException("Queue is full");
+            resize((int) Math.min(2L * items.length, MAX_CAPACITY));
+        }
+        items[size++] = item;
+    }
+
+    // remove and return a random item; the last item moves into its slot
+    public int dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        int randomNumber = StdRandom.uniform(size);
+        int item = items[randomNumber];
+        items[randomNumber] = items[--size];
+        if (items.length > minCapacity && size <= items.length / 4) {
+            resize(Math.max(items.length / 2, minCapacity));
+        }
+        return item;
+    }
+
+    // return a random item (but do not remove it)
+    public int sample() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        return items[StdRandom.uniform(size)];
+    }
+
+    // moves the items to a new array of the given capacity
+    private void resize(int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(items, 0, copy, 0, size);
+        items = copy;
+    }
+
+    // return an independent iterator over items in random order; nextInt() avoids boxing
+    public PrimitiveIterator.OfInt iterator() {
+        return new RandomIterator();
+    }
+
+    private class RandomIterator implements PrimitiveIterator.OfInt {
+
+        private final int[] order = new int[size];
+        private int cursor;
+
+        public RandomIterator() {
+            System.arraycopy(items, 0, order, 0, size);
+            StdRandom.shuffle(order);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < order.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (cursor >= order.length) throw new NoSuchElementException("Queue is empty");
+            return order[cursor++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        IntRandomizedQueue queue = new IntRandomizedQueue();
+        for (int i = 0; i < 10; i++) {
+            queue.enqueue(i);
+        }
+        PrimitiveIterator.OfInt iterator = queue.iterator();
+        while (iterator.hasNext()) System.out.print(iterator.nextInt() + " ");
+        System.out.println();
+        System.out.println("sample = " + queue.sample());
+        while (!queue.isEmpty()) System.out.print(queue.dequeue() + " ");
+        System.out.println("size = " + queue.size());
+    }
+}
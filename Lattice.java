@@ -0,0 +1,262 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Site lattice for percolation
+ **************************************************************************** */
+
+public final class Lattice {
+
+    // position of a coordinate along its axis; a site's boundary class combines one of these
+    // per axis, and every site of the same class has the same neighbor index deltas
+    private static final int INTERIOR = 0;
+    private static final int FIRST = 1;
+    private static final int LAST = 2;
+    private static final int ONLY = 3;
+
+    private final int rows;
+    private final int cols;
+    private final int depth;
+    private final int layerSize;
+    private final int sites;
+    private final boolean periodic;
+    // deltas[class] = index offsets from a site of that class to each of its neighbors
+    private final int[][] deltas;
+    // bondEnds[0][b] and bondEnds[1][b] are the sites joined by bond b; built on first use, and
+    // since every thread would build the same arrays a racing rebuild is harmless
+    private volatile int[][] bondEnds;
+
+    // creates a rows-by-cols-by-depth lattice; sites are indexed row by row, then column by
+    // column, then layer by layer, and the system percolates from row 0 to row rows - 1.
+    // neighborhood lists (row, col, layer) offsets with every component in -1..1; each offset
+    // is taken in both directions, so a site is always a neighbor of its own neighbors and
+    // which of two sites opens first cannot decide whether they connect. If periodic,
+    // columns and layers wrap around; rows never do, since they are the spanning direction
+    public Lattice(int rows, int cols, int depth, boolean periodic, int[][] neighborhood) {
+        if (rows <= 0 || cols <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("rows, cols and depth must be greater than 0");
+        }
+        if ((long) rows * cols * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Lattice has too many sites");
+        }
+        if (neighborhood == null) throw new IllegalArgumentException("Invalid neighborhood");
+        for (int[] offset : neighborhood) {
+            if (offset == null || offset.length != 3) {
+                throw new IllegalArgumentException(
+                        "Each offset must be a (row, col, layer) triple");
+            }
+            for (int component : offset) {
+                if (component < -1 || component > 1) {
+                    throw new IllegalArgumentException("Offset components must be -1, 0 or 1");
+                }
+            }
+        }
+        neighborhood = symmetric(neighborhood);
+        this.rows = rows;
+        this.cols = cols;
+        this.depth = depth;
+        this.periodic = periodic;
+        layerSize = cols * depth;
+        sites = rows * layerSize;
+        deltas = new int[64][];
+        for (int rowClass = 0; rowClass < 4; rowClass++) {
+            for (int colClass = 0; colClass < 4; colClass++) {
+                for (int layerClass = 0; layerClass < 4; layerClass++) {
+                    int row = representative(rowClass, rows);
+                    int col = representative(colClass, cols);
+                    int layer = representative(layerClass, depth);
+                    if (row < 0 || col < 0 || layer < 0) continue;
+                    deltas[(rowClass << 4) | (colClass << 2) | layerClass] =
+                            makeDeltas(row, col, layer, neighborhood);
+                }
+            }
+        }
+    }
+
+    // n-by-n lattice with the four nearest neighbors
+    public static Lattice square(int n) {
+        return new Lattice(n, n, 1, false, vonNeumann());
+    }
+
+    // rows-by-cols lattice with the four nearest neighbors
+    public static Lattice rectangle(int rows, int cols, boolean periodic) {
+        return new Lattice(rows, cols, 1, periodic, vonNeumann());
+    }
+
+    // rows-by-cols-by-depth lattice with the six nearest neighbors
+    public static Lattice cube(int rows, int cols, int depth, boolean periodic) {
+        return new Lattice(rows, cols, depth, periodic, vonNeumann());
+    }
+
+    // offsets to the nearest neighbors along each axis (4 on a flat lattice, 6 in 3D)
+    public static int[][] vonNeumann() {
+        return new int[][] {
+                { -1, 0, 0 }, { 1, 0, 0 }, { 0, -1, 0 }, { 0, 1, 0 }, { 0, 0, -1 }, { 0, 0, 1 }
+        };
+    }
+
+    // offsets to every site within one step on each axis (8 on a flat lattice, 26 in 3D)
+    public static int[][] moore() {
+        int[][] offsets = new int[26][];
+        int k = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                for (int dl = -1; dl <= 1; dl++) {
+                    if (dr != 0 || dc != 0 || dl != 0) offsets[k++] = new int[] { dr, dc, dl };
+                }
+            }
+        }
+        return offsets;
+    }
+
+    // the distinct offsets of neighborhood together with their negations
+    private static int[][] symmetric(int[][] neighborhood) {
+        // offsets are coded as base-3 digits, (row + 1) * 9 + (col + 1) * 3 + (layer + 1)
+        boolean[] present = new boolean[27];
+        for (int[] offset : neighborhood) {
+            int code = (offset[0] + 1) * 9 + (offset[1] + 1) * 3 + (offset[2] + 1);
+            present[code] = true;
+            present[26 - code] = true;
+        }
+        int count = 0;
+        for (boolean p : present) {
+            if (p) count++;
+        }
+        int[][] offsets = new int[count][];
+        int k = 0;
+        for (int code = 0; code < 27; code++) {
+            if (present[code]) {
+                offsets[k++] = new int[] { code / 9 - 1, code / 3 % 3 - 1, code % 3 - 1 };
+            }
+        }
+        return offsets;
+    }
+
+    // a coordinate of the given class on an axis of the given size, or -1 if no coordinate
+    // of that class exists
+    private static int representative(int axisClass, int size) {
+        if (axisClass == ONLY) return size == 1 ? 0 : -1;
+        if (axisClass == FIRST) return size >= 2 ? 0 : -1;
+        if (axisClass == LAST) return size >= 2 ? size - 1 : -1;
+        return size >= 3 ? 1 : -1;
+    }
+
+    // class of a coordinate on an axis of the given size
+    private static int axisClass(int coordinate, int size) {
+        if (size == 1) return ONLY;
+        if (coordinate == 0) return FIRST;
+        if (coordinate == size - 1) return LAST;
+        return INTERIOR;
+    }
+
+    // index deltas from (row, col, layer) to its distinct neighbors, leaving out offsets that
+    // fall off the lattice or wrap back onto the site itself
+    private int[] makeDeltas(int row, int col, int layer, int[][] neighborhood) {
+        int site = index(row, col, layer);
+        int[] found = new int[neighborhood.length];
+        int count = 0;
+        for (int[] offset : neighborhood) {
+            int r = row + offset[0];
+            int c = wrap(col + offset[1], cols);
+            int l = wrap(layer + offset[2], depth);
+            if (r < 0 || r >= rows || c < 0 || c >= cols || l < 0 || l >= depth) continue;
+            int delta = index(r, c, l) - site;
+            if (delta == 0) continue;
+            boolean duplicate = false;
+            for (int i = 0; i < count; i++) {
+                if (found[i] == delta) duplicate = true;
+            }
+            if (!duplicate) found[count++] = delta;
+        }
+        int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        return result;
+    }
+
+    // coordinate wrapped onto an axis of the given size if the lattice is periodic
+    private int wrap(int coordinate, int size) {
+        if (!periodic) return coordinate;
+        if (coordinate < 0) return coordinate + size;
+        if (coordinate >= size) return coordinate - size;
+        return coordinate;
+    }
+
+    // index deltas from site to each of its neighbors; the returned array is shared and must
+    // not be modified
+    int[] deltas(int site) {
+        int row = site / layerSize;
+        int rest = site - row * layerSize;
+        int col = rest / depth;
+        int layer = rest - col * depth;
+        return deltas[(axisClass(row, rows) << 4) | (axisClass(col, cols) << 2)
+                | axisClass(layer, depth)];
+    }
+
+    // sites joined by each bond, as { from, to } arrays indexed by bond; every pair of
+    // neighbors gets one bond, listed from the lower site index; the returned arrays are shared
+    // and must not be modified
+    int[][] bondEnds() {
+        int[][] ends = bondEnds;
+        if (ends != null) return ends;
+        int count = 0;
+        for (int site = 0; site < sites; site++) {
+            for (int delta : deltas(site)) {
+                if (delta > 0) count++;
+            }
+        }
+        int[] from = new int[count];
+        int[] to = new int[count];
+        int bond = 0;
+        for (int site = 0; site < sites; site++) {
+            for (int delta : deltas(site)) {
+                if (delta > 0) {
+                    from[bond] = site;
+                    to[bond] = site + delta;
+                    bond++;
+                }
+            }
+        }
+        ends = new int[][] { from, to };
+        bondEnds = ends;
+        return ends;
+    }
+
+    // total number of bonds between neighboring sites
+    public int bonds() {
+        return bondEnds()[0].length;
+    }
+
+    // index of the site at 0-based (row, col, layer)
+    public int index(int row, int col, int layer) {
+        return row * layerSize + col * depth + layer;
+    }
+
+    // 0-based row of site
+    public int row(int site) {
+        return site / layerSize;
+    }
+
+    // total number of sites
+    public int sites() {
+        return sites;
+    }
+
+    // number of rows (the spanning direction)
+    public int rows() {
+        return rows;
+    }
+
+    // number of columns
+    public int cols() {
+        return cols;
+    }
+
+    // number of layers
+    public int depth() {
+        return depth;
+    }
+
+    // do columns and layers wrap around?
+    public boolean isPeriodic() {
+        return periodic;
+    }
+}
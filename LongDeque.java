@@ -0,0 +1,173 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Deque of longs backed by a circular long array
+ **************************************************************************** */
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// RingDeque without the boxing: 8 bytes per item instead of a reference plus a 16-byte
+// Long. The capacity is not rounded to a power of two, so a deque constructed with room for
+// n items holds exactly n longs until it has to grow.
+public class LongDeque implements Iterable<Long> {
+
+    // smallest capacity the array shrinks back to
+    private static final int MIN_CAPACITY = 8;
+    // largest array most JVMs will allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    // items live in items[head], items[head + 1], ... for size slots, wrapping around the end
+    private long[] items;
+    private final int minCapacity;
+    private int head;
+    private int size;
+    // bumped by every add and remove so that iterators can fail fast
+    private int modCount;
+
+    // construct an empty deque
+    public LongDeque() {
+        this(MIN_CAPACITY);
+    }
+
+    // construct an empty deque with room for capacity items before it grows; it never shrinks
+    // below that
+    public LongDeque(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 0 and " + MAX_CAPACITY);
+        }
+        minCapacity = Math.max(capacity, MIN_CAPACITY);
+        items = new long[minCapacity];
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return size;
+    }
+
+    // add the item to the front
+    public void addFirst(long item) {
+        if (size == items.length) grow();
+        head = head == 0 ? items.length - 1 : head - 1;
+        items[head] = item;
+        size++;
+        modCount++;
+    }
+
+    // add the item to the back
+    public void addLast(long item) {
+        if (size == items.length) grow();
+        items[slot(size)] = item;
+        size++;
+        modCount++;
+    }
+
+    // remove and return the item from the front
+    public long removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        long item = items[head];
+        head = head == items.length - 1 ? 0 : head + 1;
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public long removeLast() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        long item = items[slot(size - 1)];
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // index in items of the i-th item from the front, written so that head + i cannot overflow
+    private int slot(int i) {
+        int untilEnd = items.length - head;
+        return i < untilEnd ? head + i : i - untilEnd;
+    }
+
+    // doubles the array, up to the largest array the JVM allows
+    private void grow() {
+        if (items.length == MAX_CAPACITY) throw new IllegalStateException("Deque is full");
+        resize((int) Math.min(2L * items.length, MAX_CAPACITY));
+    }
+
+    // halves the array once it is a quarter full, so that alternating adds and removes at a
+    // resize boundary cannot make it resize on every call
+    private void shrinkIfSparse() {
+        if (items.length > minCapacity && size <= items.length / 4) {
+            resize(Math.max(items.length / 2, minCapacity));
+        }
+    }
+
+    // moves the items to a new array of the given capacity, starting at index 0
+    private void resize(int capacity) {
+        long[] copy = new long[capacity];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, copy, 0, firstPart);
+        System.arraycopy(items, 0, copy, firstPart, size - firstPart);
+        items = copy;
+        head = 0;
+    }
+
+    // return an iterator over items in order from front to back; nextLong() avoids boxing
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongDequeIterator();
+    }
+
+    // throws ConcurrentModificationException on the first call after the deque is modified
+    private class LongDequeIterator implements PrimitiveIterator.OfLong {
+
+        private final int expectedModCount = modCount;
+        private int cursor;
+
+        @Override
+        public boolean hasNext() {
+            checkForModification();
+            return cursor < size;
+        }
+
+        @Override
+        public long nextLong() {
+            checkForModification();
+            if (cursor >= size) throw new NoSuchElementException("No more items in iterator");
+            return items[slot(cursor++)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Deque was modified during iteration");
+            }
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        LongDeque deque = new LongDeque();
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0) deque.addFirst(i);
+            else deque.addLast(i);
+        }
+        PrimitiveIterator.OfLong iterator = deque.iterator();
+        while (iterator.hasNext()) System.out.print(iterator.nextLong() + " ");
+        System.out.println();
+        while (deque.size() > 1) {
+            System.out.print(deque.removeFirst() + " " + deque.removeLast() + " ");
+        }
+        System.out.println("size = " + deque.size());
+    }
+}
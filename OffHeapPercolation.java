@@ -0,0 +1,283 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Percolation on grids too large for the heap
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Percolation for grids whose 9 bytes per site do not fit the heap. The union-find arrays live
+// either in direct buffers or in a memory-mapped file. Direct buffers count against
+// -XX:MaxDirectMemorySize, which defaults to the -Xmx heap limit, so a direct grid larger than
+// the heap fails with "OutOfMemoryError: Direct buffer memory" unless the flag is raised;
+// grids that outgrow memory altogether belong in the file-backed constructor. close() drops
+// the buffers so they can be reclaimed; Java has no public call that frees them at once.
+public class OffHeapPercolation implements Closeable {
+
+    // same flags as Percolation, packed with the union-find rank into one status byte per site
+    private static final int OPEN = 1;
+    private static final int TOP = 2;
+    private static final int BOTTOM = 4;
+    private static final int SPANNING = TOP | BOTTOM;
+    private static final int FLAGS = 7;
+    private static final int RANK_SHIFT = 3;
+    // largest rank the 5 bits above the flags hold; a root of rank r has at least 2^r sites
+    // below it, so only components of 2^32 sites or more would reach past it
+    private static final int MAX_RANK = 0xff >>> RANK_SHIFT;
+
+    // the arrays are split into 1 GB buffers, since a single buffer is indexed by int
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final int rowLength;
+    private final long sites;
+    // 8 bytes per site: the parent's index + 1, or 0 for a root, so freshly zeroed memory is
+    // already a forest of singletons and the grid needs no initialization pass
+    private ByteBuffer[] parent;
+    // 1 byte per site: flags in the low 3 bits, rank above them
+    private ByteBuffer[] status;
+    private long openSites;
+    private boolean percolates;
+    private boolean closed;
+
+    // creates n-by-n grid in direct memory, with all sites initially blocked; needs
+    // -XX:MaxDirectMemorySize of at least 9 bytes per site
+    public OffHeapPercolation(int n) {
+        this(n, new ByteBuffer[][] { allocate(sites(n) * Long.BYTES), allocate(sites(n)) });
+    }
+
+    // creates n-by-n grid in a memory-mapped file, with all sites initially blocked; the file
+    // is overwritten and holds 9 bytes per site, so the operating system pages the grid in
+    // and out instead of the heap holding it
+    public OffHeapPercolation(int n, Path file) throws IOException {
+        this(n, map(file, sites(n)));
+    }
+
+    // builds the grid on { parent chunks, status chunks }
+    private OffHeapPercolation(int n, ByteBuffer[][] buffers) {
+        rowLength = n;
+        sites = sites(n);
+        parent = buffers[0];
+        status = buffers[1];
+        openSites = 0;
+        percolates = false;
+    }
+
+    // number of sites in an n-by-n grid
+    private static long sites(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be greater than 0");
+        return (long) n * n;
+    }
+
+    // zeroed direct buffers holding the given number of bytes
+    private static ByteBuffer[] allocate(long bytes) {
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long size = Math.min(bytes - ((long) i << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+            chunks[i] = ByteBuffer.allocateDirect((int) size);
+        }
+        return chunks;
+    }
+
+    // truncates file and maps it as { parent chunks, status chunks }; new file pages read as
+    // zero, and the mappings stay valid after the channel is closed
+    private static ByteBuffer[][] map(Path file, long sites) throws IOException {
+        long parentBytes = sites * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            return new ByteBuffer[][] {
+                    map(channel, 0, parentBytes), map(channel, parentBytes, sites)
+            };
+        }
+    }
+
+    // maps bytes of channel starting at offset in chunks
+    private static ByteBuffer[] map(FileChannel channel, long offset, long bytes)
+            throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long size = Math.min(bytes - start, 1L << CHUNK_SHIFT);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset + start, size);
+        }
+        return chunks;
+    }
+
+    // transforms x, y coordinates in grid to a site index
+    private long xyTo1D(int row, int col) {
+        return (col - 1) + ((row - 1) * (long) rowLength);
+    }
+
+    // checks whether indices provided are valid
+    private void validIndex(int row, int col) {
+        if (row <= 0 || row > rowLength || col <= 0 || col > rowLength) {
+            throw new IllegalArgumentException(
+                    "Invalid entry for row or column...row = " + row + " " + "col = " + col);
+        }
+    }
+
+    // parent of site in the union-find forest
+    private long parentOf(long site) {
+        long offset = site << 3;
+        long stored = parent[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+        return stored == 0 ? site : stored - 1;
+    }
+
+    // points site at a new parent
+    private void setParent(long site, long root) {
+        long offset = site << 3;
+        parent[(int) (offset >>> CHUNK_SHIFT)].putLong((int) (offset & CHUNK_MASK), root + 1);
+    }
+
+    // flags and rank of site
+    private int statusOf(long site) {
+        return status[(int) (site >>> CHUNK_SHIFT)].get((int) (site & CHUNK_MASK)) & 0xff;
+    }
+
+    // stores the flags and rank of site
+    private void setStatus(long site, int value) {
+        status[(int) (site >>> CHUNK_SHIFT)].put((int) (site & CHUNK_MASK), (byte) value);
+    }
+
+    // root of the component containing site, halving the path on the way up
+    private long find(long site) {
+        long next = parentOf(site);
+        while (next != site) {
+            long grandparent = parentOf(next);
+            setParent(site, grandparent);
+            site = grandparent;
+            next = parentOf(site);
+        }
+        return site;
+    }
+
+    // merges the components of two sites by rank; the surviving root inherits the other
+    // root's top/bottom flags
+    private void union(long p, long q) {
+        long rootP = find(p);
+        long rootQ = find(q);
+        if (rootP == rootQ) return;
+        int statusP = statusOf(rootP);
+        int statusQ = statusOf(rootQ);
+        int rankP = statusP >>> RANK_SHIFT;
+        int rankQ = statusQ >>> RANK_SHIFT;
+        int flags = (statusP | statusQ) & FLAGS;
+        if (rankP < rankQ) {
+            setParent(rootP, rootQ);
+            setStatus(rootQ, (rankQ << RANK_SHIFT) | flags);
+        }
+        else {
+            setParent(rootQ, rootP);
+            // a saturated rank only weakens the balancing, which path halving makes up for;
+            // a rank of 32 would shift out of the status byte and read back as 0
+            if (rankP == rankQ && rankP < MAX_RANK) rankP++;
+            setStatus(rootP, (rankP << RANK_SHIFT) | flags);
+        }
+    }
+
+    // joins site to neighbor if neighbor is open
+    private void connect(long site, long neighbor) {
+        if ((statusOf(neighbor) & OPEN) != 0) union(site, neighbor);
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        checkOpen();
+        validIndex(row, col);
+        long cursor = xyTo1D(row, col);
+        if ((statusOf(cursor) & OPEN) != 0) return;
+        int flags = OPEN;
+        if (row == 1) flags |= TOP;
+        if (row == rowLength) flags |= BOTTOM;
+        setStatus(cursor, flags);
+        openSites++;
+        if (col != 1) connect(cursor, cursor - 1);
+        if (col != rowLength) connect(cursor, cursor + 1);
+        if (row != 1) connect(cursor, cursor - rowLength);
+        if (row != rowLength) connect(cursor, cursor + rowLength);
+        if ((statusOf(find(cursor)) & SPANNING) == SPANNING) percolates = true;
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        checkOpen();
+        validIndex(row, col);
+        return (statusOf(xyTo1D(row, col)) & OPEN) != 0;
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        checkOpen();
+        validIndex(row, col);
+        long index = xyTo1D(row, col);
+        return (statusOf(index) & OPEN) != 0 && (statusOf(find(index)) & TOP) != 0;
+    }
+
+    // returns the number of open sites
+    public long numberOfOpenSites() {
+        checkOpen();
+        return openSites;
+    }
+
+    // returns the number of sites
+    public long sites() {
+        checkOpen();
+        return sites;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        checkOpen();
+        return percolates;
+    }
+
+    // writes a file-backed grid's pages out to the file; does nothing for direct memory
+    public void flush() {
+        checkOpen();
+        for (ByteBuffer chunk : parent) {
+            if (chunk instanceof MappedByteBuffer) ((MappedByteBuffer) chunk).force();
+        }
+        for (ByteBuffer chunk : status) {
+            if (chunk instanceof MappedByteBuffer) ((MappedByteBuffer) chunk).force();
+        }
+    }
+
+    // flush a file-backed grid and release the buffers; the memory and mappings go back to
+    // the system once the garbage collector reclaims them
+    public void close() {
+        if (closed) return;
+        flush();
+        parent = null;
+        status = null;
+        closed = true;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Grid is closed");
+    }
+
+    // test client: java OffHeapPercolation n [file] opens random sites of an n-by-n grid until
+    // it percolates
+    public static void main(String[] args) throws IOException {
+        int n = Integer.parseInt(args[0]);
+        OffHeapPercolation perc;
+        if (args.length >= 2) perc = new OffHeapPercolation(n, Paths.get(args[1]));
+        else perc = new OffHeapPercolation(n);
+        while (!perc.percolates()) {
+            perc.open(StdRandom.uniform(1, n + 1), StdRandom.uniform(1, n + 1));
+        }
+        System.out.println((double) perc.numberOfOpenSites() / perc.sites());
+        perc.close();
+    }
+}
@@ -0,0 +1,442 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Additive pattern database heuristic for the sliding puzzle
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdIn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Lower bound on the moves to solve a board, from disjoint groups of tiles. For each group a
+// table holds, for every placement of the group's tiles, the fewest moves of those tiles that
+// bring them home, found by a breadth-first search back from the goal in which the blank moves
+// freely and only moves of the group's tiles count. Every move moves a tile of exactly one
+// group, so the sum over the groups is still a lower bound: the additive (disjoint) pattern
+// databases of Korf and Felner. A group's table has one byte for each placement of its k tiles
+// on n^2 cells, ranked as a k-permutation, so the default groups (6-6-3 on the 4-by-4, 5-5-5-5-4
+// on the 5-by-5) take 12 MB and 26 MB; groups of 7 and 8 would take gigabytes to build.
+//
+// Building takes seconds to minutes, so save() writes the tables to a file and load() maps the
+// file read-only, which makes opening a database a few page faults rather than a rebuild and
+// lets processes share the pages.
+public final class PatternDatabase implements Solver.Heuristic {
+
+    private static final int MAGIC = 0x50444231;
+    // largest board whose cells fit in a long mask
+    private static final int MAX_DIMENSION = 8;
+    private static final byte UNSEEN = -1;
+    // most states a group's search may have: one byte each, indexed by int
+    private static final long MAX_SEARCH_STATES = Integer.MAX_VALUE - 8;
+    // most states a default group's search has, so building one takes at most 256 MB
+    private static final long DEFAULT_SEARCH_STATES = 1L << 28;
+
+    private final int n;
+    // tiles of each group
+    private final int[][] groups;
+    // tables[g].get(rank of the cells of group g's tiles) = fewest moves of those tiles
+    private final ByteBuffer[] tables;
+
+    // build the database for n-by-n boards from the default groups for n
+    public PatternDatabase(int n) {
+        this(n, defaultGroups(n));
+    }
+
+    // build the database for n-by-n boards from the given groups, which must split the tiles
+    // 1 to n^2 - 1 between them
+    public PatternDatabase(int n, int[][] groups) {
+        this(n, groups, null);
+    }
+
+    // database with the given tables, or built if tables is null
+    private PatternDatabase(int n, int[][] groups, ByteBuffer[] tables) {
+        if (n < 2 || n > MAX_DIMENSION) {
+            throw new IllegalArgumentException("n must be between 2 and " + MAX_DIMENSION);
+        }
+        if (groups == null) throw new IllegalArgumentException("Please enter the groups");
+        this.n = n;
+        this.groups = new int[groups.length][];
+        boolean[] grouped = new boolean[n * n];
+        for (int g = 0; g < groups.length; g++) {
+            this.groups[g] = groups[g].clone();
+            for (int tile : groups[g]) {
+                if (tile < 1 || tile >= n * n || grouped[tile]) {
+                    throw new IllegalArgumentException("Tile " + tile + " is out of range or "
+                                                               + "in two groups");
+                }
+                grouped[tile] = true;
+            }
+        }
+        for (int tile = 1; tile < n * n; tile++) {
+            if (!grouped[tile]) {
+                throw new IllegalArgumentException("Tile " + tile + " is in no group");
+            }
+        }
+        if (tables == null) {
+            // reject a group too large to build before spending time on the others
+            for (int[] group : groups) {
+                if (searchStates(n * n, group.length) > MAX_SEARCH_STATES) {
+                    throw new IllegalArgumentException("A group of " + group.length
+                                                               + " tiles is too large");
+                }
+            }
+            tables = new ByteBuffer[groups.length];
+            for (int g = 0; g < groups.length; g++) {
+                tables[g] = ByteBuffer.wrap(build(this.groups[g]));
+            }
+        }
+        this.tables = tables;
+    }
+
+    // the groups used when none are given: blocks of up to 4 tiles for the 3-by-3, 6-6-3 for
+    // the 4-by-4 and 5-5-5-5-4 for the 5-by-5, in each case compact blocks of neighboring
+    // goal cells; larger boards get strips in row order of as many tiles as keep the build
+    // within DEFAULT_SEARCH_STATES, which is 4 on the 6-by-6 and 3 above that
+    public static int[][] defaultGroups(int n) {
+        if (n < 2 || n > MAX_DIMENSION) {
+            throw new IllegalArgumentException("n must be between 2 and " + MAX_DIMENSION);
+        }
+        switch (n) {
+            case 3:
+                return new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } };
+            case 4:
+                return new int[][] {
+                        { 1, 5, 6, 9, 10, 13 }, { 7, 8, 11, 12, 14, 15 }, { 2, 3, 4 }
+                };
+            case 5:
+                return new int[][] {
+                        { 1, 2, 3, 6, 7 }, { 4, 5, 8, 9, 10 }, { 11, 12, 16, 17, 21 },
+                        { 13, 14, 18, 19, 22 }, { 15, 20, 23, 24 }
+                };
+            default:
+                int tiles = n * n - 1;
+                int k = 1;
+                while (k < tiles && searchStates(n * n, k + 1) <= DEFAULT_SEARCH_STATES) k++;
+                int[][] groups = new int[(tiles + k - 1) / k][];
+                for (int g = 0; g < groups.length; g++) {
+                    groups[g] = new int[Math.min(k, tiles - k * g)];
+                    for (int slot = 0; slot < groups[g].length; slot++) {
+                        groups[g][slot] = k * g + slot + 1;
+                    }
+                }
+                return groups;
+        }
+    }
+
+    // open the database for n-by-n boards stored in file, first building it from the default
+    // groups and saving it there if the file does not exist
+    public static PatternDatabase open(Path file, int n) throws IOException {
+        if (!Files.exists(file)) new PatternDatabase(n).save(file);
+        PatternDatabase database = load(file);
+        if (database.n != n) {
+            throw new IOException(file + " holds a database for n = " + database.n);
+        }
+        return database;
+    }
+
+    // map a database written by save(); the file must not change while it is in use
+    public static PatternDatabase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a pattern database");
+            }
+            // the header is checked before anything is sized by it, so a damaged file fails
+            // here rather than with a huge or negative allocation
+            int n = buffer.getInt();
+            if (n < 2 || n > MAX_DIMENSION) throw new IOException(file + " has a bad dimension");
+            int count = buffer.getInt();
+            if (count < 1 || count > n * n - 1) {
+                throw new IOException(file + " has a bad number of groups");
+            }
+            int[][] groups = new int[count][];
+            int tiles = 0;
+            for (int g = 0; g < groups.length; g++) {
+                int k = buffer.remaining() < 4 ? -1 : buffer.getInt();
+                tiles += k;
+                if (k < 1 || tiles > n * n - 1 || buffer.remaining() < 4 * k) {
+                    throw new IOException(file + " has a bad group");
+                }
+                groups[g] = new int[k];
+                for (int slot = 0; slot < k; slot++) {
+                    groups[g][slot] = buffer.getInt();
+                }
+            }
+            ByteBuffer[] tables = new ByteBuffer[groups.length];
+            for (int g = 0; g < groups.length; g++) {
+                int size = tableSize(n * n, groups[g].length);
+                if (buffer.remaining() < size) throw new IOException(file + " is truncated");
+                ByteBuffer table = buffer.slice();
+                table.limit(size);
+                tables[g] = table;
+                buffer.position(buffer.position() + size);
+            }
+            return new PatternDatabase(n, groups, tables);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException(file + " is not a valid pattern database: " + e.getMessage());
+        }
+    }
+
+    // write the database to file, through a temporary file so that a reader never maps a
+    // partial one
+    public void save(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            int headerInts = 3;
+            for (int[] group : groups) headerInts += 1 + group.length;
+            ByteBuffer header = ByteBuffer.allocate(4 * headerInts);
+            header.putInt(MAGIC).putInt(n).putInt(groups.length);
+            for (int[] group : groups) {
+                header.putInt(group.length);
+                for (int tile : group) header.putInt(tile);
+            }
+            header.flip();
+            while (header.hasRemaining()) channel.write(header);
+            for (ByteBuffer table : tables) {
+                // rewind, not clear: a mapped table's capacity runs on to the end of the file
+                ByteBuffer bytes = table.duplicate();
+                bytes.rewind();
+                while (bytes.hasRemaining()) channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // board dimension n
+    public int dimension() {
+        return n;
+    }
+
+    // sum over the groups of the fewest moves that bring the group's tiles home
+    public int estimate(int[] tiles) {
+        return estimate(tiles, new int[n * n]);
+    }
+
+    // a view of the database for one search, which keeps its scratch space between calls
+    public Solver.Heuristic forSearch(int n) {
+        if (n != this.n) {
+            throw new IllegalArgumentException("Database is for " + this.n + "-by-" + this.n
+                                                       + " boards");
+        }
+        return new Search();
+    }
+
+    // the estimate, using cellOf to hold the cell of each tile
+    private int estimate(int[] tiles, int[] cellOf) {
+        int cells = n * n;
+        if (tiles.length != cells) {
+            throw new IllegalArgumentException("Board is not " + n + "-by-" + n);
+        }
+        for (int i = 0; i < cells; i++) {
+            cellOf[tiles[i]] = i;
+        }
+        int sum = 0;
+        for (int g = 0; g < groups.length; g++) {
+            long used = 0;
+            int rank = 0;
+            for (int slot = 0; slot < groups[g].length; slot++) {
+                int cell = cellOf[groups[g][slot]];
+                rank = rank * (cells - slot) + cell - Long.bitCount(used & ((1L << cell) - 1));
+                used |= 1L << cell;
+            }
+            sum += tables[g].get(rank) & 0xFF;
+        }
+        return sum;
+    }
+
+    private final class Search implements Solver.Heuristic {
+
+        private final int[] cellOf = new int[n * n];
+
+        public int estimate(int[] tiles) {
+            return PatternDatabase.this.estimate(tiles, cellOf);
+        }
+
+        public Solver.Heuristic forSearch(int n) {
+            return PatternDatabase.this.forSearch(n);
+        }
+    }
+
+    // states in the search for a group of k tiles: a cell for each tile and for the blank,
+    // capped at Long.MAX_VALUE
+    private static long searchStates(int cells, int k) {
+        long states = cells;
+        for (int i = 0; i < k; i++) {
+            if (states > Long.MAX_VALUE / cells) return Long.MAX_VALUE;
+            states *= cells;
+        }
+        return states;
+    }
+
+    // number of ways to place k tiles on the given number of cells
+    private static int tableSize(int cells, int k) {
+        long size = 1;
+        for (int i = 0; i < k; i++) {
+            size *= cells - i;
+        }
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("A group of " + k + " tiles is too large");
+        }
+        return (int) size;
+    }
+
+    // the table for one group: a 0-1 breadth-first search from the goal over the cells of the
+    // group's tiles and of the blank, where moving a group tile costs 1 and moving another tile
+    // costs 0, then the fewest moves over every cell of the blank. During the search the cells
+    // of the tiles are digits in base n^2, so a move changes the index by a multiple of a
+    // power of n^2; the table is then ranked compactly.
+    private byte[] build(int[] group) {
+        int cells = n * n;
+        int k = group.length;
+        // powers[slot] = cells^slot
+        int[] powers = new int[k + 1];
+        powers[0] = 1;
+        for (int slot = 0; slot < k; slot++) {
+            powers[slot + 1] = powers[slot] * cells;
+        }
+        // moves[placement * cells + blank], placement = sum of cell(slot) * cells^slot
+        byte[] moves = new byte[powers[k] * cells];
+        Arrays.fill(moves, UNSEEN);
+        int goal = 0;
+        for (int slot = 0; slot < k; slot++) {
+            goal += (group[slot] - 1) * powers[slot];
+        }
+        IntList level = new IntList();
+        IntList next = new IntList();
+        level.add(goal * cells + cells - 1);
+        moves[goal * cells + cells - 1] = 0;
+        int[] cellOf = new int[k];
+        for (int depth = 0; level.size > 0; depth++) {
+            if (depth + 1 > 255) throw new IllegalStateException("Moves do not fit in a byte");
+            // states reached by free moves join this level while it is being scanned
+            for (int q = 0; q < level.size; q++) {
+                int state = level.items[q];
+                if ((moves[state] & 0xFF) != depth) continue;
+                int placement = state / cells;
+                int blank = state % cells;
+                long used = 0;
+                for (int slot = 0, rest = placement; slot < k; slot++, rest /= cells) {
+                    cellOf[slot] = rest % cells;
+                    used |= 1L << cellOf[slot];
+                }
+                for (int d = 0; d < 4; d++) {
+                    int cell = neighbor(blank, d);
+                    if (cell < 0) continue;
+                    if ((used & (1L << cell)) == 0) {
+                        // another tile slides into the blank: free
+                        int reached = placement * cells + cell;
+                        int known = moves[reached] & 0xFF;
+                        if (moves[reached] == UNSEEN || known > depth) {
+                            moves[reached] = (byte) depth;
+                            level.add(reached);
+                        }
+                        continue;
+                    }
+                    int slot = 0;
+                    while (cellOf[slot] != cell) slot++;
+                    int reached = (placement + (blank - cell) * powers[slot]) * cells + cell;
+                    if (moves[reached] == UNSEEN) {
+                        moves[reached] = (byte) (depth + 1);
+                        next.add(reached);
+                    }
+                }
+            }
+            IntList swap = level;
+            level = next;
+            next = swap;
+            next.size = 0;
+        }
+        // compact table: fewest moves over the blank's cells, by the rank of the placement
+        byte[] table = new byte[tableSize(cells, k)];
+        Arrays.fill(table, UNSEEN);
+        for (int placement = 0; placement < powers[k]; placement++) {
+            long used = 0;
+            int rank = 0;
+            boolean distinct = true;
+            for (int slot = 0, rest = placement; slot < k; slot++, rest /= cells) {
+                int cell = rest % cells;
+                if ((used & (1L << cell)) != 0) {
+                    distinct = false;
+                    break;
+                }
+                rank = rank * (cells - slot) + cell - Long.bitCount(used & ((1L << cell) - 1));
+                used |= 1L << cell;
+            }
+            if (!distinct) continue;
+            int best = 255;
+            for (int blank = 0; blank < cells; blank++) {
+                if (moves[placement * cells + blank] != UNSEEN) {
+                    best = Math.min(best, moves[placement * cells + blank] & 0xFF);
+                }
+            }
+            table[rank] = (byte) best;
+        }
+        return table;
+    }
+
+    // cell next to i in direction d (up, down, left, right), or -1 off the board
+    private int neighbor(int i, int d) {
+        switch (d) {
+            case 0:
+                return i >= n ? i - n : -1;
+            case 1:
+                return i < n * n - n ? i + n : -1;
+            case 2:
+                return i % n > 0 ? i - 1 : -1;
+            default:
+                return i % n < n - 1 ? i + 1 : -1;
+        }
+    }
+
+    // growable list of ints for the search levels
+    private static final class IntList {
+        private int[] items = new int[1024];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) items = Arrays.copyOf(items, 2 * items.length);
+            items[size++] = item;
+        }
+    }
+
+    // unit testing: builds (or opens) the database for n-by-n boards in the given file, checks
+    // that saving and loading it again gives back the same file and tables, and prints the
+    // estimate for a board read from standard input next to its manhattan distance
+    public static void main(String[] args) throws IOException {
+        int n = Integer.parseInt(args[0]);
+        Path file = Path.of(args.length > 1 ? args[1] : "pdb-" + n + "x" + n + ".dat");
+        long start = System.nanoTime();
+        PatternDatabase database = open(file, n);
+        System.out.printf("opened %s in %.1f s%n", file, (System.nanoTime() - start) / 1e9);
+        Path copy = file.resolveSibling(file.getFileName() + ".copy");
+        database.save(copy);
+        PatternDatabase reloaded = load(copy);
+        boolean same = Files.size(copy) == Files.size(file)
+                && Arrays.deepEquals(reloaded.groups, database.groups)
+                && Arrays.equals(reloaded.tables, database.tables);
+        Files.delete(copy);
+        if (!same) throw new IllegalStateException("Saving and loading changed the database");
+        System.out.println("round trip ok");
+        if (StdIn.isEmpty()) return;
+        int[][] tiles = new int[n][n];
+        int[] flat = new int[n * n];
+        for (int i = 0; i < n * n; i++) {
+            flat[i] = StdIn.readInt();
+            tiles[i / n][i % n] = flat[i];
+        }
+        System.out.println("manhattan = " + new Board(tiles).manhattan() + ", pattern database = "
+                                   + database.estimate(flat));
+    }
+}
@@ -4,112 +4,155 @@
  *  Description: Assignment #1
  **************************************************************************** */
 
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import edu.princeton.cs.algs4.StdRandom;
 
 public class Percolation {
 
-    private final WeightedQuickUnionUF structure;
-    private final WeightedQuickUnionUF structure2;
-    private boolean[][] grid;
-    private final int rowLength;
+    // bit flags kept per site; on a root, TOP and BOTTOM say whether any site in the component
+    // touches the top or bottom row, which replaces the virtual sites and the second
+    // union-find that was only there to avoid backwash
+    private static final byte OPEN = 1;
+    private static final byte TOP = 2;
+    private static final byte BOTTOM = 4;
+    private static final byte SPANNING = TOP | BOTTOM;
+
+    private final Lattice lattice;
+    private final int[] parent;
+    private final byte[] rank;
+    private final byte[] status;
     private int openSites;
-    private final int virtualTop;
-    private final int virtualBottom;
+    private boolean percolates;
 
     // creates n-by-n grid, with all sites initially blocked
     public Percolation(int n) {
-        if (n <= 0) throw new IllegalArgumentException("n must be greater than 0");
-        structure = new WeightedQuickUnionUF((n * n) + 2);
-        structure2 = new WeightedQuickUnionUF((n * n) + 1);
-        grid = new boolean[n + 1][n + 1];
-        for (int i = 1; i <= n; i++) {
-            for (int j = 1; j <= n; j++) {
-                grid[i][j] = false;
-            }
+        this(square(n));
+    }
+
+    // creates a grid on the given lattice, with all sites initially blocked
+    public Percolation(Lattice lattice) {
+        if (lattice == null) throw new IllegalArgumentException("lattice must not be null");
+        this.lattice = lattice;
+        parent = new int[lattice.sites()];
+        rank = new byte[lattice.sites()];
+        status = new byte[lattice.sites()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
         }
-        rowLength = n;
         openSites = 0;
-        virtualTop = 0;
-        virtualBottom = (n * n) + 1;
+        percolates = false;
+    }
+
+    // n-by-n lattice, keeping the original message for a bad n
+    private static Lattice square(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be greater than 0");
+        return Lattice.square(n);
     }
 
-    // transforms x, y coordinates in grid to an index in WeightedQuickUnionUF structure
+    // transforms x, y coordinates in grid to an index in the union-find arrays
     private int xyTo1D(int row, int col) {
-        return (col) + ((row - 1) * rowLength);
+        return lattice.index(row - 1, col - 1, 0);
     }
 
     // checks whether indices provided are valid
     private void validIndex(int row, int col) {
-        if (row <= 0 || row > rowLength || col <= 0 || col > rowLength) {
+        if (lattice.depth() != 1) {
+            throw new UnsupportedOperationException("Use site indices on a 3D lattice");
+        }
+        if (row <= 0 || row > lattice.rows() || col <= 0 || col > lattice.cols()) {
             throw new IllegalArgumentException(
                     "Invalid entry for row or column...row = " + row + " " + "col = " + col);
         }
     }
 
+    // checks whether the site index provided is valid
+    private void validSite(int site) {
+        if (site < 0 || site >= parent.length) {
+            throw new IllegalArgumentException("Invalid entry for site...site = " + site);
+        }
+    }
+
+    // root of the component containing site, halving the path on the way up
+    private int find(int site) {
+        while (parent[site] != site) {
+            parent[site] = parent[parent[site]];
+            site = parent[site];
+        }
+        return site;
+    }
+
+    // merges the components of two sites by rank; the surviving root inherits the other
+    // root's top/bottom flags
+    private void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+        if (rank[rootP] < rank[rootQ]) {
+            parent[rootP] = rootQ;
+            status[rootQ] |= status[rootP];
+        }
+        else {
+            parent[rootQ] = rootP;
+            status[rootP] |= status[rootQ];
+            if (rank[rootP] == rank[rootQ]) rank[rootP]++;
+        }
+    }
+
+    // joins site to neighbor if neighbor is open
+    private void connect(int site, int neighbor) {
+        if ((status[neighbor] & OPEN) != 0) union(site, neighbor);
+    }
+
     // opens the site (row, col) if it is not open already
-    // @edu.umd.cs.findbugs.annotations.SuppressFBWarnings("UCF_USELESS_CONTROL_FLOW_NEXT_LINE")
     public void open(int row, int col) {
         validIndex(row, col);
-        int cursor = xyTo1D(row, col);
-        if (!isOpen(row, col)) {
-            grid[row][col] = true;
-            openSites++;
-            if (row == 1) {
-                structure.union(cursor, virtualTop);
-                structure2.union(cursor, virtualTop);
-                if (col != 1 && isOpen(row, col - 1)) {
-                    structure.union(cursor - 1, cursor);
-                    structure2.union(cursor - 1, cursor);
-                }
-                if (!(row >= rowLength) && isOpen(row + 1, col)) {
-                    structure.union(cursor, cursor + rowLength);
-                    structure2.union(cursor, cursor + rowLength);
-                }
-                if (col != rowLength) {
-                    if (isOpen(row, col + 1)) {
-                        structure.union(cursor, cursor + 1);
-                        structure2.union(cursor, cursor + 1);
-                    }
-                }
-            }
-            else {
-                if (col != 1 && isOpen(row, col - 1)) {
-                    structure.union(cursor - 1, cursor);
-                    structure2.union(cursor - 1, cursor);
-                }
-                if (isOpen(row - 1, col)) {
-                    structure.union(cursor - rowLength, cursor);
-                    structure2.union(cursor - rowLength, cursor);
-                }
-                if (row != rowLength) {
-                    if (isOpen(row + 1, col)) {
-                        structure.union(cursor + rowLength, cursor);
-                        structure2.union(cursor + rowLength, cursor);
-                    }
-                }
-                if (col != rowLength) {
-                    if (isOpen(row, col + 1)) {
-                        structure.union(cursor + 1, cursor);
-                        structure2.union(cursor + 1, cursor);
-                    }
-                }
-            }
-            if (row == rowLength) structure.union(cursor, virtualBottom);
+        openSite(xyTo1D(row, col));
+    }
+
+    // opens the site with the given lattice index if it is not open already
+    public void open(int site) {
+        validSite(site);
+        openSite(site);
+    }
 
+    // marks site open, tags it with the boundary rows it lies on and joins it to every open
+    // neighbor in one pass over the lattice's index deltas
+    private void openSite(int site) {
+        if ((status[site] & OPEN) != 0) return;
+        int row = lattice.row(site);
+        byte flags = OPEN;
+        if (row == 0) flags |= TOP;
+        if (row == lattice.rows() - 1) flags |= BOTTOM;
+        status[site] = flags;
+        openSites++;
+        for (int delta : lattice.deltas(site)) {
+            connect(site, site + delta);
         }
+        if ((status[find(site)] & SPANNING) == SPANNING) percolates = true;
     }
 
     // is the site (row, col) open?
     public boolean isOpen(int row, int col) {
         validIndex(row, col);
-        return grid[row][col];
+        return (status[xyTo1D(row, col)] & OPEN) != 0;
+    }
+
+    // is the site with the given lattice index open?
+    public boolean isOpen(int site) {
+        validSite(site);
+        return (status[site] & OPEN) != 0;
     }
 
     // is the site (row, col) full?
     public boolean isFull(int row, int col) {
         validIndex(row, col);
         int index = xyTo1D(row, col);
-        return (isOpen(row, col) && structure2.find(index) == structure2.find(virtualTop));
+        return (status[index] & OPEN) != 0 && (status[find(index)] & TOP) != 0;
+    }
+
+    // is the site with the given lattice index full?
+    public boolean isFull(int site) {
+        validSite(site);
+        return (status[site] & OPEN) != 0 && (status[find(site)] & TOP) != 0;
     }
 
     // returns the number of open sites
@@ -117,15 +160,59 @@ public class Percolation {
         return openSites;
     }
 
+    // lattice the grid is built on
+    public Lattice lattice() {
+        return lattice;
+    }
+
     // does the system percolate?
     public boolean percolates() {
-        return (structure.find(virtualTop) == structure.find(virtualBottom));
+        return percolates;
     }
 
-    // test client (optional)
+    // test client (optional): opens the same random half of the sites of several lattices in
+    // two opposite orders and checks that both give the same percolates(), full sites and
+    // number of components, including on a lattice given only one-sided offsets
     public static void main(String[] args) {
-        Percolation perc = new Percolation(1);
-        perc.open(1, 1);
-        // System.out.println(perc.isFull(1, 1));
+        Lattice[] lattices = {
+                Lattice.square(20), Lattice.rectangle(12, 9, true),
+                Lattice.cube(6, 5, 4, true),
+                new Lattice(15, 15, 1, true, new int[][] { { 1, 0, 0 }, { 0, 1, 0 } }),
+                new Lattice(10, 3, 2, true, Lattice.moore())
+        };
+        int mismatches = 0;
+        for (Lattice lattice : lattices) {
+            for (int trial = 0; trial < 200; trial++) {
+                int[] sites = new int[lattice.sites()];
+                for (int i = 0; i < sites.length; i++) {
+                    sites[i] = i;
+                }
+                StdRandom.shuffle(sites);
+                int open = sites.length / 2;
+                Percolation forward = new Percolation(lattice);
+                Percolation backward = new Percolation(lattice);
+                for (int i = 0; i < open; i++) {
+                    forward.open(sites[i]);
+                    backward.open(sites[open - 1 - i]);
+                }
+                boolean same = forward.percolates() == backward.percolates()
+                        && forward.components() == backward.components();
+                for (int site = 0; site < sites.length; site++) {
+                    if (forward.isFull(site) != backward.isFull(site)) same = false;
+                }
+                if (!same) mismatches++;
+            }
+        }
+        System.out.println("orders that disagree = " + mismatches);
+        if (mismatches > 0) throw new IllegalStateException("Opening order changed the result");
+    }
+
+    // number of components of open sites
+    private int components() {
+        int count = 0;
+        for (int site = 0; site < parent.length; site++) {
+            if ((status[site] & OPEN) != 0 && find(site) == site) count++;
+        }
+        return count;
     }
 }
@@ -0,0 +1,79 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Compares the trial modes of PercolationStats
+ **************************************************************************** */
+
+import java.util.SplittableRandom;
+
+public class PercolationBenchmark {
+
+    // random numbers drawn by a rejection-sampling trial: one site index per attempt, whether
+    // or not the site was already open
+    private static long rejectionDraws(int n, SplittableRandom random) {
+        Percolation perc = new Percolation(n);
+        int total = n * n;
+        long draws = 0;
+        while (!perc.percolates()) {
+            perc.open(random.nextInt(total));
+            draws++;
+        }
+        return draws;
+    }
+
+    // random numbers drawn by a permutation trial: one per site opened
+    private static long permutationDraws(int n, SplittableRandom random) {
+        Percolation perc = new Percolation(n);
+        int total = n * n;
+        int[] sites = new int[total];
+        for (int i = 0; i < total; i++) {
+            sites[i] = i;
+        }
+        long draws = 0;
+        for (int i = 0; !perc.percolates(); i++) {
+            int j = i + random.nextInt(total - i);
+            int site = sites[j];
+            sites[j] = sites[i];
+            sites[i] = site;
+            perc.open(site);
+            draws++;
+        }
+        return draws;
+    }
+
+    // wall time in milliseconds of running the trials single-threaded in the given mode
+    private static double millis(int n, int trials, long seed, PercolationStats.TrialMode mode) {
+        long start = System.nanoTime();
+        new PercolationStats(n, trials, seed, 1, mode);
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    // usage: java PercolationBenchmark n trials [seed]
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : 1L;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long rejection = 0;
+        long permutation = 0;
+        for (int i = 0; i < trials; i++) {
+            rejection += rejectionDraws(n, random.split());
+            permutation += permutationDraws(n, random.split());
+        }
+
+        // warm up both paths before timing them
+        millis(n, 1, seed, PercolationStats.TrialMode.REJECTION);
+        millis(n, 1, seed, PercolationStats.TrialMode.PERMUTATION);
+        double rejectionMillis = millis(n, trials, seed, PercolationStats.TrialMode.REJECTION);
+        double permutationMillis = millis(n, trials, seed, PercolationStats.TrialMode.PERMUTATION);
+
+        System.out.printf("%-12s %18s %14s %n", "mode", "draws per trial", "ms per trial");
+        System.out.printf("%-12s %18.1f %14.2f %n", "rejection", (double) rejection / trials,
+                          rejectionMillis / trials);
+        System.out.printf("%-12s %18.1f %14.2f %n", "permutation", (double) permutation / trials,
+                          permutationMillis / trials);
+        System.out.printf("%-12s %18.2f %14.2f %n", "ratio", (double) rejection / permutation,
+                          rejectionMillis / permutationMillis);
+    }
+}
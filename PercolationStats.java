@@ -7,18 +7,139 @@
 import edu.princeton.cs.algs4.StdRandom;
 import edu.princeton.cs.algs4.StdStats;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class PercolationStats {
 
+    // how a trial picks the next site to open: REJECTION draws random coordinates and retries
+    // when the site is already open, PERMUTATION opens the sites of a lazily shuffled index
+    // array in order, so every draw opens a new site
+    public enum TrialMode { REJECTION, PERMUTATION }
+
+    // what a trial opens: SITE opens lattice sites (Percolation), BOND opens the bonds between
+    // neighboring sites (BondPercolation); the estimate is the fraction of those that are open
+    public enum Model { SITE, BOND }
+
+    // receives the running estimates after every trial of a streaming run
+    public interface Progress {
+        void update(int trials, double mean, double stddev, double halfWidth);
+    }
+
+    // z value of the 95% confidence interval
+    private static final double CONFIDENCE_95 = 1.96;
+    // fewest trials a streaming run completes before it may stop early, so the interval is not
+    // judged from a handful of samples
+    private static final int MIN_STREAMING_TRIALS = 30;
+
     private final double mean;
     private final double stddev;
     private final double confidenceLo;
     private final double confidenceHi;
+    private final int trials;
 
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
+        this(serialTrials(n, trials));
+    }
+
+    // perform independent trials on an n-by-n grid, split across the given number of threads;
+    // every trial draws from its own random stream split off the seed, so the results are
+    // identical for a given seed no matter how many threads run them
+    public PercolationStats(int n, int trials, long seed, int threads) {
+        this(n, trials, seed, threads, TrialMode.REJECTION);
+    }
+
+    // same as above, choosing how each trial picks sites to open
+    public PercolationStats(int n, int trials, long seed, int threads, TrialMode mode) {
+        this(square(n), trials, seed, threads, mode);
+    }
+
+    // same as above, on any lattice
+    public PercolationStats(Lattice lattice, int trials, long seed, int threads, TrialMode mode) {
+        this(lattice, Model.SITE, trials, seed, threads, mode);
+    }
+
+    // same as above, choosing site or bond percolation
+    public PercolationStats(Lattice lattice, Model model, int trials, long seed, int threads,
+                            TrialMode mode) {
+        this(parallelTrials(lattice, model, trials, seed, threads, mode));
+    }
+
+    // perform trials on an n-by-n grid until the 95% confidence interval is narrower than
+    // 2 * tolerance or maxTrials have run, reporting the running estimates to progress (which
+    // may be null) after each trial; trials run in batches of the given number of threads and
+    // are folded in trial order, so for a given seed the stopping point and the results do not
+    // depend on the thread count
+    public PercolationStats(int n, int maxTrials, double tolerance, long seed, int threads,
+                            TrialMode mode, Progress progress) {
+        this(square(n), maxTrials, tolerance, seed, threads, mode, progress);
+    }
+
+    // same as above, on any lattice
+    public PercolationStats(Lattice lattice, int maxTrials, double tolerance, long seed,
+                            int threads, TrialMode mode, Progress progress) {
+        this(lattice, Model.SITE, maxTrials, tolerance, seed, threads, mode, progress);
+    }
+
+    // same as above, choosing site or bond percolation
+    public PercolationStats(Lattice lattice, Model model, int maxTrials, double tolerance,
+                            long seed, int threads, TrialMode mode, Progress progress) {
+        this(streamingTrials(lattice, model, maxTrials, tolerance, seed, threads, mode,
+                             progress));
+    }
+
+    // summarize the thresholds found by each trial
+    private PercolationStats(double[] results) {
+        mean = StdStats.mean(results);
+        stddev = StdStats.stddev(results);
+        trials = results.length;
+        confidenceLo = mean - CONFIDENCE_95 * stddev / Math.sqrt(results.length);
+        confidenceHi = mean + CONFIDENCE_95 * stddev / Math.sqrt(results.length);
+        // for (double d : results) System.out.println(d);
+    }
+
+    // summarize the running statistics of a streaming run
+    private PercolationStats(RunningStats stats) {
+        mean = stats.mean();
+        stddev = stats.stddev();
+        trials = stats.count();
+        confidenceLo = mean - stats.halfWidth();
+        confidenceHi = mean + stats.halfWidth();
+    }
+
+    // checks whether grid size and number of trials are valid
+    private static void validate(int n, int trials) {
         if (n <= 0 || trials <= 0) {
             throw new IllegalArgumentException("Invalid entry for grid size or trials");
         }
+    }
+
+    // checks whether the settings shared by the seeded runs are valid
+    private static void validate(Lattice lattice, Model model, int trials, int threads,
+                                 TrialMode mode) {
+        if (lattice == null || trials <= 0) {
+            throw new IllegalArgumentException("Invalid entry for lattice or trials");
+        }
+        if (model == null) throw new IllegalArgumentException("Invalid entry for model");
+        // with no bonds every bond trial would report 0 open out of 0
+        if (model == Model.BOND && lattice.bonds() == 0) {
+            throw new IllegalArgumentException("Bond percolation needs a lattice with bonds");
+        }
+        if (threads <= 0) throw new IllegalArgumentException("Invalid entry for threads");
+        if (mode == null) throw new IllegalArgumentException("Invalid entry for trial mode");
+    }
+
+    // n-by-n lattice, rejecting a bad n with the same message as the serial constructor
+    private static Lattice square(int n) {
+        if (n <= 0) throw new IllegalArgumentException("Invalid entry for grid size or trials");
+        return Lattice.square(n);
+    }
+
+    // runs every trial on the calling thread using the shared StdRandom state
+    private static double[] serialTrials(int n, int trials) {
+        validate(n, trials);
         double[] results = new double[trials];
         for (int i = 0; i < trials; i++) {
             Percolation perc = new Percolation(n);
@@ -30,12 +151,203 @@ public class PercolationStats {
             }
             results[i] = (double) perc.numberOfOpenSites() / (double) (n * n);
         }
-        double constant = 1.96;
-        mean = StdStats.mean(results);
-        stddev = StdStats.stddev(results);
-        confidenceLo = mean - constant * stddev / Math.sqrt(results.length);
-        confidenceHi = mean + constant * stddev / Math.sqrt(results.length);
-        // for (double d : results) System.out.println(d);
+        return results;
+    }
+
+    // runs the trials on a fork-join pool with one random stream per trial; the streams are
+    // split off the seed up front, in trial order, so no stream depends on thread scheduling
+    private static double[] parallelTrials(Lattice lattice, Model model, int trials, long seed,
+                                           int threads, TrialMode mode) {
+        validate(lattice, model, trials, threads, mode);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[trials];
+        for (int i = 0; i < trials; i++) {
+            streams[i] = root.split();
+        }
+        double[] results = new double[trials];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new TrialTask(lattice, model, mode, streams, results, 0, trials));
+        }
+        finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    // runs trials in batches of one per thread until the interval is tight enough; streams are
+    // split off the seed in trial order exactly as in parallelTrials
+    private static RunningStats streamingTrials(Lattice lattice, Model model, int maxTrials,
+                                                double tolerance, long seed, int threads,
+                                                TrialMode mode, Progress progress) {
+        validate(lattice, model, maxTrials, threads, mode);
+        if (!(tolerance > 0.0)) throw new IllegalArgumentException("Invalid entry for tolerance");
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[threads];
+        double[] results = new double[threads];
+        RunningStats stats = new RunningStats();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (stats.count() < maxTrials) {
+                int batch = Math.min(threads, maxTrials - stats.count());
+                for (int i = 0; i < batch; i++) {
+                    streams[i] = root.split();
+                }
+                pool.invoke(new TrialTask(lattice, model, mode, streams, results, 0, batch));
+                for (int i = 0; i < batch; i++) {
+                    stats.add(results[i]);
+                    if (progress != null) {
+                        progress.update(stats.count(), stats.mean(), stats.stddev(),
+                                        stats.halfWidth());
+                    }
+                    if (stats.count() >= MIN_STREAMING_TRIALS && stats.halfWidth() < tolerance) {
+                        return stats;
+                    }
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        return stats;
+    }
+
+    // runs one trial in the given mode and returns the fraction of sites open at percolation
+    private static double trial(Lattice lattice, Model model, TrialMode mode,
+                                SplittableRandom random) {
+        if (model == Model.BOND) {
+            if (mode == TrialMode.PERMUTATION) return bondPermutationTrial(lattice, random);
+            return bondRejectionTrial(lattice, random);
+        }
+        if (mode == TrialMode.PERMUTATION) return permutationTrial(lattice, random);
+        return rejectionTrial(lattice, random);
+    }
+
+    // opens random sites on a fresh grid until it percolates and returns the fraction open
+    private static double rejectionTrial(Lattice lattice, SplittableRandom random) {
+        Percolation perc = new Percolation(lattice);
+        int total = lattice.sites();
+        while (!perc.percolates()) {
+            perc.open(random.nextInt(total));
+        }
+        return (double) perc.numberOfOpenSites() / (double) total;
+    }
+
+    // opens sites in a random order without replacement until the grid percolates; the order is
+    // an incremental Fisher-Yates shuffle, so only the prefix that is actually opened gets
+    // shuffled and every draw opens a site that is still blocked
+    private static double permutationTrial(Lattice lattice, SplittableRandom random) {
+        Percolation perc = new Percolation(lattice);
+        int total = lattice.sites();
+        int[] sites = new int[total];
+        for (int i = 0; i < total; i++) {
+            sites[i] = i;
+        }
+        for (int i = 0; !perc.percolates(); i++) {
+            int j = i + random.nextInt(total - i);
+            int site = sites[j];
+            sites[j] = sites[i];
+            sites[i] = site;
+            perc.open(site);
+        }
+        return (double) perc.numberOfOpenSites() / (double) total;
+    }
+
+    // opens random bonds until the lattice percolates and returns the fraction open
+    private static double bondRejectionTrial(Lattice lattice, SplittableRandom random) {
+        BondPercolation perc = new BondPercolation(lattice);
+        int total = perc.bonds();
+        while (!perc.percolates()) {
+            perc.open(random.nextInt(total));
+        }
+        return (double) perc.numberOfOpenBonds() / (double) total;
+    }
+
+    // opens bonds in a random order without replacement, as permutationTrial does for sites
+    private static double bondPermutationTrial(Lattice lattice, SplittableRandom random) {
+        BondPercolation perc = new BondPercolation(lattice);
+        int total = perc.bonds();
+        int[] bonds = new int[total];
+        for (int i = 0; i < total; i++) {
+            bonds[i] = i;
+        }
+        for (int i = 0; !perc.percolates(); i++) {
+            int j = i + random.nextInt(total - i);
+            int bond = bonds[j];
+            bonds[j] = bonds[i];
+            bonds[i] = bond;
+            perc.open(bond);
+        }
+        return (double) perc.numberOfOpenBonds() / (double) total;
+    }
+
+    // runs trials [lo, hi), halving the range until a single trial is left; each trial writes
+    // only its own slot of results
+    private static class TrialTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Lattice lattice;
+        private final Model model;
+        private final TrialMode mode;
+        private final SplittableRandom[] streams;
+        private final double[] results;
+        private final int lo;
+        private final int hi;
+
+        TrialTask(Lattice lattice, Model model, TrialMode mode, SplittableRandom[] streams,
+                  double[] results, int lo, int hi) {
+            this.lattice = lattice;
+            this.model = model;
+            this.mode = mode;
+            this.streams = streams;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                results[lo] = trial(lattice, model, mode, streams[lo]);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new TrialTask(lattice, model, mode, streams, results, lo, mid),
+                      new TrialTask(lattice, model, mode, streams, results, mid, hi));
+        }
+    }
+
+    // running mean and variance by Welford's method, so a streaming run keeps no per-trial
+    // results
+    private static class RunningStats {
+        private int count;
+        private double mean;
+        private double m2;
+
+        void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        int count() {
+            return count;
+        }
+
+        double mean() {
+            return mean;
+        }
+
+        double stddev() {
+            if (count < 2) return Double.NaN;
+            return Math.sqrt(m2 / (count - 1));
+        }
+
+        // half-width of the 95% confidence interval around the mean
+        double halfWidth() {
+            return CONFIDENCE_95 * stddev() / Math.sqrt(count);
+        }
     }
 
     // sample mean of percolation threshold
@@ -58,11 +370,27 @@ public class PercolationStats {
         return confidenceHi;
     }
 
-    // test client (see below)
+    // number of trials the estimates are based on
+    public int trials() {
+        return trials;
+    }
+
+    // test client (see below); pass a seed and a thread count after n and t to run the trials
+    // in parallel, and optionally a trial mode (REJECTION or PERMUTATION) after those
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int t = Integer.parseInt(args[1]);
-        PercolationStats percStats = new PercolationStats(n, t);
+        PercolationStats percStats;
+        if (args.length >= 4) {
+            long seed = Long.parseLong(args[2]);
+            int threads = Integer.parseInt(args[3]);
+            TrialMode mode = TrialMode.REJECTION;
+            if (args.length >= 5) mode = TrialMode.valueOf(args[4]);
+            percStats = new PercolationStats(n, t, seed, threads, mode);
+        }
+        else {
+            percStats = new PercolationStats(n, t);
+        }
         System.out.printf("%-25s %s %.15f %n", "mean", " = ", percStats.mean());
         System.out.printf("%-25s %s %.15f %n", "stddev", " = ", percStats.stddev());
         System.out.printf("%-25s %s %s%.15f%s %.15f%s %n", "95% confidence interval", " = ", "[",
@@ -0,0 +1,168 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Spanning probability curve by Newman-Ziff sweeps
+ **************************************************************************** */
+
+import java.util.SplittableRandom;
+
+public class PercolationSweep {
+
+    private final int n;
+    private final int trials;
+    // spanning[k] = fraction of trials that percolate once k sites are open
+    private final double[] spanning;
+
+    // sweeps one trial per site order; each order lists site indices (row - 1) * n + (col - 1)
+    // and must percolate the grid before it runs out
+    public PercolationSweep(int n, int[][] orders) {
+        if (n <= 0) throw new IllegalArgumentException("Invalid entry for grid size");
+        if (orders == null || orders.length == 0) {
+            throw new IllegalArgumentException("Invalid entry for site orders");
+        }
+        this.n = n;
+        this.trials = orders.length;
+        int[] counts = new int[n * n + 1];
+        for (int[] order : orders) {
+            counts[sweep(n, order)]++;
+        }
+        spanning = cumulate(counts, trials);
+    }
+
+    // sweeps trials random site orders drawn from seed
+    public PercolationSweep(int n, int trials, long seed) {
+        if (n <= 0 || trials <= 0) {
+            throw new IllegalArgumentException("Invalid entry for grid size or trials");
+        }
+        this.n = n;
+        this.trials = trials;
+        SplittableRandom random = new SplittableRandom(seed);
+        int total = n * n;
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        int[] counts = new int[total + 1];
+        for (int t = 0; t < trials; t++) {
+            counts[randomSweep(n, order, random)]++;
+        }
+        spanning = cumulate(counts, trials);
+    }
+
+    // opens sites of an n-by-n grid in the given order and returns the number of open sites at
+    // the moment it first percolates; the sweep stops there, since the grid spans for every
+    // larger number of open sites
+    public static int sweep(int n, int[] order) {
+        if (n <= 0) throw new IllegalArgumentException("Invalid entry for grid size");
+        if (order == null || order.length != n * n) {
+            throw new IllegalArgumentException("Site order must list all " + n * n + " sites");
+        }
+        // a permutation of every site always percolates, so no check is needed after the loop
+        boolean[] listed = new boolean[order.length];
+        for (int site : order) {
+            if (site < 0 || site >= order.length) {
+                throw new IllegalArgumentException("Site " + site + " is outside the grid");
+            }
+            if (listed[site]) throw new IllegalArgumentException("Site " + site + " is repeated");
+            listed[site] = true;
+        }
+        Percolation perc = new Percolation(n);
+        for (int site : order) {
+            perc.open(site);
+            if (perc.percolates()) break;
+        }
+        return perc.numberOfOpenSites();
+    }
+
+    // sweeps a random order, drawing each site by one step of a Fisher-Yates shuffle just
+    // before it opens, so only the prefix up to the percolation point is ever shuffled; order
+    // is left holding a permutation, and reshuffling any permutation is still uniform
+    private static int randomSweep(int n, int[] order, SplittableRandom random) {
+        Percolation perc = new Percolation(n);
+        int total = order.length;
+        for (int i = 0; !perc.percolates(); i++) {
+            int j = i + random.nextInt(total - i);
+            int site = order[j];
+            order[j] = order[i];
+            order[i] = site;
+            perc.open(site);
+        }
+        return perc.numberOfOpenSites();
+    }
+
+    // turns a histogram of percolation points into the fraction of trials spanning at each k
+    private static double[] cumulate(int[] counts, int trials) {
+        double[] spanning = new double[counts.length];
+        long sum = 0;
+        for (int k = 0; k < counts.length; k++) {
+            sum += counts[k];
+            spanning[k] = (double) sum / trials;
+        }
+        return spanning;
+    }
+
+    // number of trials swept
+    public int trials() {
+        return trials;
+    }
+
+    // fraction of trials that percolate with exactly k sites open
+    public double spanning(int k) {
+        if (k < 0 || k >= spanning.length) {
+            throw new IllegalArgumentException("k must be between 0 and " + (spanning.length - 1));
+        }
+        return spanning[k];
+    }
+
+    // probability that the grid percolates when every site is open independently with
+    // probability p; this weights spanning(k) by the binomial distribution of k, walking out
+    // from its mode in both directions until the terms no longer matter
+    public double spanningProbability(double p) {
+        if (p < 0.0 || p > 1.0) throw new IllegalArgumentException("p must be between 0 and 1");
+        int total = n * n;
+        if (p == 0.0) return spanning[0];
+        if (p == 1.0) return spanning[total];
+        double odds = p / (1.0 - p);
+        int mode = (int) Math.min(total, Math.floor((total + 1) * p));
+        double weight = 1.0;
+        double norm = 1.0;
+        double sum = spanning[mode];
+        for (int k = mode; k < total; k++) {
+            weight *= odds * (total - k) / (k + 1);
+            norm += weight;
+            sum += weight * spanning[k + 1];
+            if (weight < 1e-17 * norm) break;
+        }
+        weight = 1.0;
+        for (int k = mode; k > 0; k--) {
+            weight *= k / (odds * (total - k + 1));
+            norm += weight;
+            sum += weight * spanning[k - 1];
+            if (weight < 1e-17 * norm) break;
+        }
+        return sum / norm;
+    }
+
+    // mean fraction of open sites at which the trials percolate
+    public double mean() {
+        int total = n * n;
+        double mean = 0.0;
+        for (int k = 1; k <= total; k++) {
+            mean += (spanning[k] - spanning[k - 1]) * k;
+        }
+        return mean / total;
+    }
+
+    // test client: prints the spanning probability curve around the threshold
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int t = Integer.parseInt(args[1]);
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : 1L;
+        PercolationSweep sweep = new PercolationSweep(n, t, seed);
+        System.out.printf("%-25s %s %.15f %n", "mean", " = ", sweep.mean());
+        for (int i = 50; i <= 70; i++) {
+            double p = i / 100.0;
+            System.out.printf("P(%.2f) = %.6f %n", p, sweep.spanningProbability(p));
+        }
+    }
+}
@@ -5,11 +5,33 @@
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 
 public class Permutation {
-    public static void main(String[] args) {
+
+    // bytes read from the input channel at a time
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // prints k of the strings on standard input in random order; with --stream, keeps only k
+    // strings in memory instead of all of them
+    public static void main(String[] args) throws IOException {
 
         int num = Integer.parseInt(args[0]);
+        if (args.length > 1 && args[1].equals("--stream")) {
+            try (FileInputStream in = new FileInputStream(FileDescriptor.in)) {
+                for (String s : sample(in.getChannel(), num)) {
+                    System.out.println(s);
+                }
+            }
+            return;
+        }
         RandomizedQueue<String> queue = new RandomizedQueue<>();
         while (!StdIn.isEmpty()) {
             queue.enqueue(StdIn.readString());
@@ -19,4 +41,118 @@ public class Permutation {
         }
 
     }
+
+    // returns k of the whitespace-separated strings read from the channel, in random order,
+    // with the same distribution as dequeuing k of them from a RandomizedQueue holding them
+    // all; it keeps a reservoir of k strings (Li's Algorithm L), drawing how many strings to
+    // skip before the next replacement, and skipped strings are stepped over byte by byte
+    // without being decoded. Strings are UTF-8 and separated by ASCII whitespace.
+    public static String[] sample(ReadableByteChannel in, int k) throws IOException {
+        if (in == null) throw new IllegalArgumentException("Please enter a valid channel");
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        String[] reservoir = new String[k];
+        if (k == 0) return reservoir;
+        TokenReader reader = new TokenReader(in);
+        for (int i = 0; i < k; i++) {
+            reservoir[i] = reader.next();
+            if (reservoir[i] == null) {
+                throw new IllegalArgumentException("Input has fewer than " + k + " strings");
+            }
+        }
+        double w = Math.exp(Math.log(random()) / k);
+        // log1p keeps the gap accurate once w is tiny, billions of strings in
+        while (reader.skip((long) (Math.log(random()) / Math.log1p(-w)))) {
+            String s = reader.next();
+            if (s == null) break;
+            reservoir[StdRandom.uniform(k)] = s;
+            w *= Math.exp(Math.log(random()) / k);
+        }
+        StdRandom.shuffle(reservoir);
+        return reservoir;
+    }
+
+    // uniform in (0, 1], so that its logarithm is finite
+    private static double random() {
+        return 1.0 - StdRandom.uniform();
+    }
+
+    // splits a byte channel into whitespace-separated tokens
+    private static final class TokenReader {
+
+        private final ReadableByteChannel in;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        private int position;
+        private int limit;
+        private byte[] token = new byte[64];
+
+        TokenReader(ReadableByteChannel in) {
+            this.in = in;
+        }
+
+        // steps over the next count tokens without decoding them; false if the input ends
+        // first
+        boolean skip(long count) throws IOException {
+            for (long i = 0; i < count; i++) {
+                if (!skipWhitespace()) return false;
+                do {
+                    while (position < limit && !isWhitespace(bytes[position])) {
+                        position++;
+                    }
+                } while (position == limit && fill());
+            }
+            return true;
+        }
+
+        // the next token, or null at end of input
+        String next() throws IOException {
+            if (!skipWhitespace()) return null;
+            int length = 0;
+            while (true) {
+                int start = position;
+                while (position < limit && !isWhitespace(bytes[position])) {
+                    position++;
+                }
+                int n = position - start;
+                if (length + n > token.length) {
+                    byte[] bigger = new byte[Math.max(2 * token.length, length + n)];
+                    System.arraycopy(token, 0, bigger, 0, length);
+                    token = bigger;
+                }
+                System.arraycopy(bytes, start, token, length, n);
+                length += n;
+                if (position < limit || !fill()) {
+                    return new String(token, 0, length, StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        // moves to the first byte of the next token; false at end of input
+        private boolean skipWhitespace() throws IOException {
+            while (true) {
+                while (position < limit) {
+                    if (!isWhitespace(bytes[position])) return true;
+                    position++;
+                }
+                if (!fill()) return false;
+            }
+        }
+
+        // reads the next block of input; false at end of input
+        private boolean fill() throws IOException {
+            buffer.clear();
+            int n;
+            do {
+                n = in.read(buffer);
+            } while (n == 0);
+            if (n < 0) return false;
+            position = 0;
+            limit = n;
+            return true;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '\f' || b == 0x0b;
+        }
+    }
 }
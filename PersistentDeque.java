@@ -0,0 +1,569 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Deque stored in memory-mapped files that survives restarts
+ **************************************************************************** */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Deque whose items live outside the heap, serialized into memory-mapped segment files in a
+// directory, so it can hold more than the heap and picks up where it left off when reopened.
+//
+// The directory holds fixed-size segment files and a small meta file. Segments tile one
+// long byte position space; the deque occupies positions [head, tail), addLast writes at
+// tail and addFirst writes just below head, so bytes are only ever written outside the live
+// range and a record is never overwritten while it is on the deque. Each record is its
+// payload length, the payload padded to 4 bytes, and the length again, so it can be read
+// from either end. A record never crosses a segment boundary: the unused end of a segment is
+// marked as padding (a negative length at both ends of the gap) and the record goes into
+// the next segment. Segments that head and tail have both moved past are deleted.
+//
+// head, tail and size are committed to the meta file after every operation, into one of two
+// slots in turn with a sequence number and a checksum, so a torn write leaves the previous
+// commit readable. A process crash loses nothing, since the operating system still holds the
+// mapped pages; to survive a power failure the pages must be forced to disk, which sync()
+// does and which syncEvery operations does automatically. Not thread-safe.
+public class PersistentDeque<Item> implements Iterable<Item>, Closeable {
+
+    // turns items into bytes and back
+    public interface Codec<Item> {
+
+        // number of bytes write() puts for the item
+        int size(Item item);
+
+        // puts the item's bytes at the buffer's position
+        void write(Item item, ByteBuffer buffer);
+
+        // reads an item of the given number of bytes from the buffer's position
+        Item read(ByteBuffer buffer, int size);
+    }
+
+    // strings as UTF-8, with unpaired surrogates written as '?' the way String.getBytes does
+    public static final Codec<String> STRINGS = new Codec<String>() {
+        public int size(String item) {
+            int bytes = 0;
+            for (int i = 0; i < item.length(); i++) {
+                char c = item.charAt(i);
+                if (c < 0x80) bytes += 1;
+                else if (c < 0x800) bytes += 2;
+                else if (Character.isHighSurrogate(c) && i + 1 < item.length()
+                        && Character.isLowSurrogate(item.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                }
+                else if (Character.isSurrogate(c)) bytes += 1;
+                else bytes += 3;
+            }
+            return bytes;
+        }
+
+        public void write(String item, ByteBuffer buffer) {
+            buffer.put(item.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public String read(ByteBuffer buffer, int size) {
+            byte[] bytes = new byte[size];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    // longs as 8 fixed bytes
+    public static final Codec<Long> LONGS = new Codec<Long>() {
+        public int size(Long item) {
+            return Long.BYTES;
+        }
+
+        public void write(Long item, ByteBuffer buffer) {
+            buffer.putLong(item);
+        }
+
+        public Long read(ByteBuffer buffer, int size) {
+            return buffer.getLong();
+        }
+    };
+
+    // default segment file size
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    private static final int MAGIC = 0x50445131;
+    // meta file: magic, segment size, then two commit slots of seq, head, tail, size, check
+    private static final int SLOT = 16;
+    private static final int SLOT_SIZE = 5 * Long.BYTES;
+    private static final int META_SIZE = SLOT + 2 * SLOT_SIZE;
+    // segment numbers start here, so the deque can grow a long way in both directions while
+    // every position stays positive
+    private static final long FIRST_SEGMENT = 1L << 32;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    // a mapped segment file
+    private static final class Segment {
+        private final long number;
+        private final MappedByteBuffer buffer;
+        // written since the last sync?
+        private boolean dirty;
+
+        Segment(long number, MappedByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final Codec<Item> codec;
+    private final int segmentSize;
+    private final int syncEvery;
+    private final MappedByteBuffer meta;
+    private final Map<Long, Segment> segments = new HashMap<>();
+    // the two segments used last, checked before the map so that work at the ends of the deque
+    // does not box segment numbers
+    private Segment recent;
+    private Segment previous;
+    // lowest and highest segment files that exist
+    private long lowSegment;
+    private long highSegment;
+    private long head;
+    private long tail;
+    private long size;
+    private long sequence;
+    private int unsynced;
+    private int modCount;
+    private boolean closed;
+
+    // open the deque stored in directory with the default segment size, or create an empty
+    // one there; the pages are forced to disk only by sync() and close()
+    public PersistentDeque(Path directory, Codec<Item> codec) throws IOException {
+        this(directory, codec, DEFAULT_SEGMENT_SIZE, 0);
+    }
+
+    // open the deque stored in directory, or create an empty one there with the given segment
+    // size (a multiple of 4 between 64 bytes and 1 GB, which bounds the largest item); if
+    // syncEvery is positive, the pages are forced to disk after every syncEvery operations
+    public PersistentDeque(Path directory, Codec<Item> codec, int segmentSize, int syncEvery)
+            throws IOException {
+        if (directory == null || codec == null) {
+            throw new IllegalArgumentException("Please enter a valid directory and codec");
+        }
+        if (segmentSize < 64 || segmentSize > 1 << 30 || segmentSize % 4 != 0) {
+            throw new IllegalArgumentException("segmentSize must be a multiple of 4 between "
+                                                       + "64 and 2^30");
+        }
+        if (syncEvery < 0) throw new IllegalArgumentException("syncEvery must not be negative");
+        this.directory = directory;
+        this.codec = codec;
+        this.syncEvery = syncEvery;
+        Files.createDirectories(directory);
+        Path metaFile = directory.resolve("meta.dat");
+        boolean exists = Files.exists(metaFile);
+        meta = map(metaFile, META_SIZE);
+        if (exists && meta.getInt(0) == MAGIC) {
+            this.segmentSize = meta.getInt(4);
+            recover();
+        }
+        else {
+            // MAGIC is stored last, so a zero there means a crash interrupted creating the
+            // deque before it ever held an item, and the directory is started over
+            if (exists && meta.getInt(0) != 0) {
+                throw new IOException(metaFile + " is not a deque's meta file");
+            }
+            this.segmentSize = segmentSize;
+            meta.putInt(4, segmentSize);
+            head = FIRST_SEGMENT * segmentSize;
+            tail = head;
+            commit();
+            meta.putInt(0, MAGIC);
+            meta.force();
+        }
+        lowSegment = segment(head);
+        highSegment = segment(tail);
+        deleteSegmentsOutside(lowSegment, highSegment);
+    }
+
+    // restores head, tail and size from the newer intact commit slot
+    private void recover() throws IOException {
+        long best = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            int at = SLOT + slot * SLOT_SIZE;
+            long seq = meta.getLong(at);
+            long h = meta.getLong(at + 8);
+            long t = meta.getLong(at + 16);
+            long n = meta.getLong(at + 24);
+            if (meta.getLong(at + 32) == check(seq, h, t, n) && seq > best) {
+                best = seq;
+                head = h;
+                tail = t;
+                size = n;
+            }
+        }
+        if (best < 0) throw new IOException("No intact commit in " + directory);
+        sequence = best;
+    }
+
+    // removes segment files left behind outside [low, high], such as by a crash between
+    // moving past a segment and deleting it
+    private void deleteSegmentsOutside(long low, long high) throws IOException {
+        try (DirectoryStream<Path> files =
+                     Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long segment = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                                             name.length()
+                                                                     - SEGMENT_SUFFIX.length()));
+                if (segment < low || segment > high) Files.delete(file);
+            }
+        }
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the deque
+    public long size() {
+        return size;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        int length = recordLength(item);
+        long end = head;
+        long segmentStart = segment(end - 1) * segmentSize;
+        if (end - length < segmentStart) {
+            pad(segmentStart, (int) (end - segmentStart));
+            end = segmentStart;
+        }
+        writeRecord(end - length, item, length);
+        head = end - length;
+        lowSegment = Math.min(lowSegment, segment(head));
+        size++;
+        commit();
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        int length = recordLength(item);
+        long start = tail;
+        int offset = offset(start);
+        if (offset + length > segmentSize) {
+            pad(start, segmentSize - offset);
+            start += segmentSize - offset;
+        }
+        writeRecord(start, item, length);
+        tail = start + length;
+        highSegment = Math.max(highSegment, segment(tail - 1));
+        size++;
+        commit();
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        long start = skipForward(head);
+        int n = readInt(start);
+        Item item = readPayload(start, n);
+        head = start + recordLength(n);
+        size--;
+        if (size == 0) {
+            head = tail;
+        }
+        commit();
+        while (lowSegment < segment(head)) {
+            deleteSegment(lowSegment++);
+        }
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        long end = skipBackward(tail);
+        int n = readInt(end - 4);
+        long start = end - recordLength(n);
+        Item item = readPayload(start, n);
+        tail = start;
+        size--;
+        if (size == 0) {
+            tail = head;
+        }
+        commit();
+        while (highSegment > segment(Math.max(tail, head + 1) - 1)) {
+            deleteSegment(highSegment--);
+        }
+        return item;
+    }
+
+    // force every page written since the last sync, then the meta file, to disk
+    public void sync() {
+        checkOpen();
+        for (Segment segment : segments.values()) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+        }
+        meta.force();
+        unsynced = 0;
+    }
+
+    // sync and release the deque; it can be opened again from the same directory
+    public void close() {
+        if (closed) return;
+        sync();
+        segments.clear();
+        recent = null;
+        previous = null;
+        closed = true;
+    }
+
+    // bytes a record holding the item takes, checking that it fits in a segment
+    private int recordLength(Item item) {
+        checkOpen();
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        int n = codec.size(item);
+        long length = 8 + ((n + 3L) & ~3L);
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("Item of " + n + " bytes does not fit in a segment");
+        }
+        return (int) length;
+    }
+
+    // bytes a record with an n-byte payload takes
+    private static int recordLength(int n) {
+        return 8 + ((n + 3) & ~3);
+    }
+
+    // writes the record for item into [start, start + length)
+    private void writeRecord(long start, Item item, int length) {
+        ByteBuffer buffer = written(segment(start));
+        int offset = offset(start);
+        buffer.position(offset + 4);
+        codec.write(item, buffer);
+        int written = buffer.position() - offset - 4;
+        if (recordLength(written) != length) {
+            throw new IllegalStateException("Codec wrote " + written + " bytes, not the size "
+                                                    + "it returned");
+        }
+        buffer.putInt(offset, written);
+        buffer.putInt(offset + length - 4, written);
+    }
+
+    // marks the gap [start, start + gap) as padding, readable from either end
+    private void pad(long start, int gap) {
+        ByteBuffer buffer = written(segment(start));
+        int offset = offset(start);
+        buffer.putInt(offset, -gap);
+        buffer.putInt(offset + gap - 4, -gap);
+    }
+
+    // first record start at or after position, stepping over padding
+    private long skipForward(long position) {
+        int n = readInt(position);
+        while (n < 0) {
+            position -= n;
+            n = readInt(position);
+        }
+        return position;
+    }
+
+    // first record end at or before position, stepping back over padding
+    private long skipBackward(long position) {
+        int n = readInt(position - 4);
+        while (n < 0) {
+            position += n;
+            n = readInt(position - 4);
+        }
+        return position;
+    }
+
+    private int readInt(long position) {
+        return buffer(segment(position)).getInt(offset(position));
+    }
+
+    // the item whose record starts at start and has an n-byte payload
+    private Item readPayload(long start, int n) {
+        ByteBuffer buffer = buffer(segment(start));
+        buffer.position(offset(start) + 4);
+        return codec.read(buffer, n);
+    }
+
+    private long segment(long position) {
+        return position / segmentSize;
+    }
+
+    private int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    // the buffer of the segment, for reading
+    private MappedByteBuffer buffer(long segment) {
+        return mapped(segment).buffer;
+    }
+
+    // the buffer of the segment, for writing; it is forced at the next sync
+    private MappedByteBuffer written(long segment) {
+        Segment mapped = mapped(segment);
+        mapped.dirty = true;
+        return mapped.buffer;
+    }
+
+    // the segment, mapping its file and creating it if it does not exist
+    private Segment mapped(long segment) {
+        if (recent != null && recent.number == segment) return recent;
+        Segment mapped;
+        if (previous != null && previous.number == segment) {
+            mapped = previous;
+        }
+        else {
+            mapped = segments.get(segment);
+            if (mapped == null) {
+                try {
+                    mapped = new Segment(segment, map(segmentFile(segment), segmentSize));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                segments.put(segment, mapped);
+            }
+        }
+        previous = recent;
+        recent = mapped;
+        return mapped;
+    }
+
+    private void deleteSegment(long segment) {
+        segments.remove(segment);
+        if (recent != null && recent.number == segment) recent = null;
+        if (previous != null && previous.number == segment) previous = null;
+        try {
+            Files.deleteIfExists(segmentFile(segment));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    // maps the first bytes of file, creating or extending it; the mapping stays valid after
+    // the channel is closed
+    private static MappedByteBuffer map(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        }
+    }
+
+    // writes head, tail and size to the slot after the last one written, then syncs if the
+    // policy says so
+    private void commit() {
+        sequence++;
+        int at = SLOT + (int) (sequence & 1) * SLOT_SIZE;
+        meta.putLong(at + 8, head);
+        meta.putLong(at + 16, tail);
+        meta.putLong(at + 24, size);
+        meta.putLong(at, sequence);
+        meta.putLong(at + 32, check(sequence, head, tail, size));
+        modCount++;
+        if (syncEvery > 0 && ++unsynced >= syncEvery) sync();
+    }
+
+    // checksum of a commit slot
+    private static long check(long seq, long h, long t, long n) {
+        long x = seq * 0x9e3779b97f4a7c15L;
+        x = (x ^ h) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ t) * 0x94d049bb133111ebL;
+        x = (x ^ n) * 0x9e3779b97f4a7c15L;
+        return x ^ (x >>> 31) ^ MAGIC;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Deque is closed");
+    }
+
+    // return an iterator over items in order from front to back; it throws
+    // ConcurrentModificationException on the first call after the deque is modified
+    public Iterator<Item> iterator() {
+        checkOpen();
+        return new PersistentIterator();
+    }
+
+    private class PersistentIterator implements Iterator<Item> {
+
+        private final int expectedModCount = modCount;
+        private long position = head;
+        private long remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            checkForModification();
+            return remaining > 0;
+        }
+
+        @Override
+        public Item next() {
+            checkForModification();
+            if (remaining == 0) throw new NoSuchElementException("No more items in iterator");
+            long start = skipForward(position);
+            int n = readInt(start);
+            position = start + recordLength(n);
+            remaining--;
+            return readPayload(start, n);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Deque was modified during iteration");
+            }
+        }
+    }
+
+    // unit testing: writes a directory given on the command line (or a temporary one), reopens
+    // it and checks that the items come back in order
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0])
+                                         : Files.createTempDirectory("persistent-deque");
+        int n = 100000;
+        try (PersistentDeque<String> deque = new PersistentDeque<>(directory, STRINGS, 4096, 0)) {
+            for (int i = 0; i < n; i++) {
+                if (i % 2 == 0) deque.addLast("item" + i);
+                else deque.addFirst("item" + i);
+            }
+        }
+        try (PersistentDeque<String> deque = new PersistentDeque<>(directory, STRINGS)) {
+            System.out.println("reopened size = " + deque.size());
+            boolean ordered = true;
+            for (int i = n - 1; i >= 0 && !deque.isEmpty(); i -= 2) {
+                ordered &= deque.removeFirst().equals("item" + i);
+            }
+            for (int i = n - 2; i >= 0 && !deque.isEmpty(); i -= 2) {
+                ordered &= deque.removeLast().equals("item" + i);
+            }
+            System.out.println("in order = " + ordered + ", size = " + deque.size());
+        }
+    }
+}
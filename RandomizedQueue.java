@@ -7,31 +7,45 @@
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
 
+    // default smallest capacity the array shrinks back to
+    private static final int MIN_CAPACITY = 8;
+    // largest array most JVMs will allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    // the items are arr[0..size), in no particular order; the array doubles when full and
+    // halves when a quarter full, so a run of alternating enqueues and dequeues at any size
+    // resizes at most once
     private Item[] arr;
-    private final int head;
-    private int tail;
+    private final int minCapacity;
     private int size = 0;
+    // bumped by every enqueue and dequeue so that lazy iterators can fail fast
+    private int modCount;
 
     // construct an empty randomized queue
     public RandomizedQueue() {
-        tail = 0;
-        head = 0;
-        arr = (Item[]) new Object[tail];
+        this(MIN_CAPACITY);
+    }
+
+    // construct an empty randomized queue whose array never shrinks below minCapacity
+    public RandomizedQueue(int minCapacity) {
+        if (minCapacity < 1 || minCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("minCapacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.minCapacity = minCapacity;
+        arr = (Item[]) new Object[minCapacity];
     }
 
     // is the randomized queue empty?
     public boolean isEmpty() {
-        try {
-            return arr[0] == null;
-        }
-        catch (ArrayIndexOutOfBoundsException e) {
-            return true;
-        }
+        return size == 0;
     }
 
     // return the number of items on the randomized queue
@@ -43,65 +57,58 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     public void enqueue(Item item) {
         if (item == null)
             throw new IllegalArgumentException("Please enter a valid item to enqueue");
-        if (size == 0) {
-            arr = (Item[]) new Object[1];
-            arr[head] = item;
-            size++;
-            tail = 1;
-        }
-        else if (size == tail) {
-            tail = tail * 2;
-            Item[] temp = (Item[]) new Object[tail];
-            for (int i = 0; i < size; i++) {
-                temp[i] = arr[i];
+        if (size == arr.length) ensureCapacity(size + 1);
+        arr[size++] = item;
+        modCount++;
+    }
+
+    // add every item of the collection, growing the array at most once
+    public void enqueueAll(Collection<? extends Item> items) {
+        if (items == null) throw new IllegalArgumentException("Please enter a valid collection");
+        ensureCapacity(size + (long) items.size());
+        int n = size;
+        for (Item item : items) {
+            if (item == null) {
+                // leave the queue as it was
+                for (int i = size; i < n; i++) {
+                    arr[i] = null;
+                }
+                throw new IllegalArgumentException("Please enter a valid item to enqueue");
             }
-            temp[size] = item;
-            arr = temp;
-            size++;
-        }
-        else {
-            arr[size] = item;
-            size++;
+            arr[n++] = item;
         }
+        size = n;
+        modCount++;
     }
 
     // remove and return a random item
     public Item dequeue() {
         if (size == 0) throw new NoSuchElementException("Queue is empty");
-        int randomNumber = StdRandom.uniform(size);
-        if (size == 1) {
-            Item item = arr[0];
-            arr[0] = null;
-            size = 0;
-            tail = 0;
-            return item;
-        }
-        if (size == 2) {
-            Item item = arr[randomNumber];
-            Item[] temp = (Item[]) new Object[1];
-            if (randomNumber == 1) temp[0] = arr[0];
-            else temp[0] = arr[1];
-            arr = temp;
-            size = 1;
-            tail = 1;
-            return item;
-        }
-        if (size == tail / 4) {
-            tail = tail / 2;
-            Item[] temp = (Item[]) new Object[tail];
-            for (int i = 0; i < size; i++) {
-                temp[i] = arr[i];
-            }
-            arr = temp;
-        }
-        if (randomNumber != size - 1) {
-            Item tempItem = arr[size - 1];
-            arr[size - 1] = arr[randomNumber];
-            arr[randomNumber] = tempItem;
+        Item item = removeRandom();
+        shrinkIfSparse();
+        return item;
+    }
+
+    // remove k random items and pass them to the consumer in random order; this is a partial
+    // Fisher-Yates shuffle of the array's tail, with at most one resize at the end
+    public void dequeue(int k, Consumer<? super Item> consumer) {
+        if (consumer == null) throw new IllegalArgumentException("Please enter a valid consumer");
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        if (k > size) throw new NoSuchElementException("Queue has fewer than " + k + " items");
+        for (int i = 0; i < k; i++) {
+            consumer.accept(removeRandom());
         }
-        Item item = arr[size - 1];
+        shrinkIfSparse();
+    }
+
+    // swaps a random item into the last slot and removes it
+    private Item removeRandom() {
+        int randomNumber = StdRandom.uniform(size);
+        Item item = arr[randomNumber];
+        arr[randomNumber] = arr[size - 1];
         arr[size - 1] = null;
         size--;
+        modCount++;
         return item;
     }
 
@@ -112,6 +119,29 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return arr[randomNumber];
     }
 
+    // doubles the array until it holds capacity items
+    private void ensureCapacity(long capacity) {
+        if (capacity <= arr.length) return;
+        if (capacity > MAX_CAPACITY) throw new IllegalStateException("Queue is full");
+        resize((int) Math.min(Math.max(2L * arr.length, capacity), MAX_CAPACITY));
+    }
+
+    // halves the array while it is at most a quarter full, but not below minCapacity
+    private void shrinkIfSparse() {
+        int capacity = arr.length;
+        while (capacity / 2 >= minCapacity && size <= capacity / 4) {
+            capacity /= 2;
+        }
+        if (capacity != arr.length) resize(capacity);
+    }
+
+    // moves the items to a new array of the given capacity
+    private void resize(int capacity) {
+        Item[] temp = (Item[]) new Object[capacity];
+        System.arraycopy(arr, 0, temp, 0, size);
+        arr = temp;
+    }
+
     // return an independent iterator over items in random order
 
     public Iterator<Item> iterator() {
@@ -150,6 +180,112 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
     }
 
+    // return an iterator over items in random order that allocates no copy of the queue; it
+    // reads the queue in place, so it throws ConcurrentModificationException on the first call
+    // after an enqueue or dequeue
+    public Iterator<Item> lazyIterator() {
+        return new LazyRandomIterator();
+    }
+
+    // Visits arr[p(0)], arr[p(1)], ... where p is a pseudo-random permutation of [0, size): a
+    // six-round Feistel network over the smallest even number of bits that covers size, with
+    // round keys drawn from StdRandom for each iterator. An index the network maps outside
+    // [0, size) is fed through it again ("cycle walking") until it lands inside, which keeps p
+    // a bijection; the domain is less than four times size, so that takes under four passes
+    // on average. The keys give each iterator an independent order, but six keys cannot reach
+    // all size! orders, so unlike RandomIterator the order is pseudo-random rather than
+    // exactly uniform. A Feistel network with few-bit halves is visibly biased, so queues of
+    // up to SMALL items are shuffled exactly, with an incremental Fisher-Yates over an index
+    // array of at most SMALL ints.
+    private class LazyRandomIterator implements Iterator<Item> {
+
+        private static final int ROUNDS = 6;
+        private static final int SMALL = 256;
+
+        private final int expectedModCount = modCount;
+        private final int halfBits;
+        private final int halfMask;
+        private final int[] keys = new int[ROUNDS];
+        private final int[] small;
+        private int cursor;
+
+        public LazyRandomIterator() {
+            int bits = 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 1));
+            halfBits = (bits + 1) / 2;
+            halfMask = (1 << halfBits) - 1;
+            if (size <= SMALL) {
+                small = new int[size];
+                for (int i = 0; i < size; i++) {
+                    small[i] = i;
+                }
+            }
+            else {
+                small = null;
+                for (int r = 0; r < ROUNDS; r++) {
+                    keys[r] = StdRandom.uniform(Integer.MAX_VALUE);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForModification();
+            return cursor < size;
+        }
+
+        @Override
+        public Item next() {
+            checkForModification();
+            if (cursor >= size) throw new NoSuchElementException("Queue is empty");
+            if (small != null) {
+                int swap = cursor + StdRandom.uniform(size - cursor);
+                int index = small[swap];
+                small[swap] = small[cursor];
+                small[cursor++] = index;
+                return arr[index];
+            }
+            int index = permute(cursor++);
+            // unsigned, because the domain reaches 2^32 for the largest queues
+            while (Integer.compareUnsigned(index, size) >= 0) {
+                index = permute(index);
+            }
+            return arr[index];
+        }
+
+        // one pass of the Feistel network over [0, 2^(2 * halfBits))
+        private int permute(int index) {
+            int left = index >>> halfBits;
+            int right = index & halfMask;
+            for (int r = 0; r < ROUNDS; r++) {
+                int mixed = left ^ (round(right, keys[r]) & halfMask);
+                left = right;
+                right = mixed;
+            }
+            return (left << halfBits) | right;
+        }
+
+        // round function: the key and the half index through the murmur3 finalizer
+        private int round(int half, int key) {
+            int h = half * 0x9e3779b9 ^ key;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Queue was modified during iteration");
+            }
+        }
+    }
+
     // unit testing (required)
     public static void main(String[] args) {
 
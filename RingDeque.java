@@ -0,0 +1,151 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Deque backed by a circular array
+ **************************************************************************** */
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class RingDeque<Item> implements Iterable<Item> {
+
+    // smallest capacity the array shrinks back to
+    private static final int MIN_CAPACITY = 8;
+
+    // items live in items[head], items[(head + 1) & mask], ... for size slots; the capacity is
+    // always a power of two, so wrapping around is a mask instead of a modulo
+    private Item[] items;
+    private int mask;
+    private int head;
+    private int size;
+    // bumped by every add and remove so that iterators can fail fast
+    private int modCount;
+
+    // construct an empty deque
+    public RingDeque() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+        mask = MIN_CAPACITY - 1;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return size;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        if (size == items.length) resize(items.length * 2);
+        head = (head - 1) & mask;
+        items[head] = item;
+        size++;
+        modCount++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        if (size == items.length) resize(items.length * 2);
+        items[(head + size) & mask] = item;
+        size++;
+        modCount++;
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        Item item = items[head];
+        items[head] = null;
+        head = (head + 1) & mask;
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty");
+        int tail = (head + size - 1) & mask;
+        Item item = items[tail];
+        items[tail] = null;
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    // halves the array once it is a quarter full, so that alternating adds and removes at a
+    // power of two cannot make it resize on every call
+    private void shrinkIfSparse() {
+        if (items.length > MIN_CAPACITY && size == items.length / 4) resize(items.length / 2);
+    }
+
+    // moves the items to a new array of the given capacity, starting at index 0
+    private void resize(int capacity) {
+        Item[] copy = (Item[]) new Object[capacity];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, copy, 0, firstPart);
+        System.arraycopy(items, 0, copy, firstPart, size - firstPart);
+        items = copy;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    // return an iterator over items in order from front to back
+    public Iterator<Item> iterator() {
+        return new RingIterator();
+    }
+
+    // throws ConcurrentModificationException on the first call after the deque is modified
+    private class RingIterator implements Iterator<Item> {
+
+        private final int expectedModCount = modCount;
+        private int cursor;
+
+        @Override
+        public boolean hasNext() {
+            checkForModification();
+            return cursor < size;
+        }
+
+        @Override
+        public Item next() {
+            checkForModification();
+            if (cursor >= size) throw new NoSuchElementException("No more items in iterator");
+            return items[(head + cursor++) & mask];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Deque was modified during iteration");
+            }
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        RingDeque<Integer> deque = new RingDeque<>();
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0) deque.addFirst(i);
+            else deque.addLast(i);
+        }
+        for (int item : deque) System.out.print(item + " ");
+        System.out.println();
+        while (deque.size() > 1) {
+            System.out.print(deque.removeFirst() + " " + deque.removeLast() + " ");
+        }
+        System.out.println("size = " + deque.size());
+    }
+}
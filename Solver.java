@@ -9,24 +9,77 @@ import edu.princeton.cs.algs4.MinPQ;
 import edu.princeton.cs.algs4.Stack;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// A* search over boards, guided by a lower bound on the moves left (see Heuristic). Each search
+// keeps the fewest moves at which it has reached every board so far, keyed by the board's
+// Zobrist hash in an open-addressing table of primitive longs, and only enqueues a neighbor it
+// reaches in fewer moves than before; a node that comes off the queue after its board was
+// reached more cheaply is stale and skipped. This keeps each board on the queue about once,
+// where checking only the grandparent let the same board be enqueued along every path to it.
+// Boards are told apart by their 64-bit hashes alone, so a collision (probability about 2^-64
+// per pair of boards) could hide a board; that risk is accepted for not storing the boards.
+//
+// A* keeps every node it generates, which is too much memory for hard 4-by-4 puzzles and
+// hopeless beyond. IDA_STAR instead searches depth first, cutting off paths whose moves plus
+// estimated moves left exceed a bound and raising the bound to the smallest value that was cut
+// off until the goal is reached. It moves tiles in place on one mutable copy of the board and
+// undoes each move on the way back, so it needs memory only for the current path, at the cost
+// of searching the shallower levels again on every round.
+//
+// Both searches take their lower bound on the remaining moves from a Heuristic: MANHATTAN (the
+// default, kept incrementally by Board), LINEAR_CONFLICT, or a PatternDatabase. The stronger
+// the bound, the fewer boards either search has to look at.
 public class Solver {
 
+    // how the solver searches: A_STAR (the default) or iterative deepening A*
+    public enum Algorithm { A_STAR, IDA_STAR }
+
+    // a lower bound on the moves that solve a board
+    public interface Heuristic {
+
+        // tiles holds the board's tiles row by row, with 0 for the blank
+        int estimate(int[] tiles);
+
+        // the heuristic one search on n-by-n boards calls at every node; it may keep scratch
+        // space between calls, so it belongs to that search alone. By default the heuristic
+        // itself
+        default Heuristic forSearch(int n) {
+            return this;
+        }
+    }
+
+    // sum of Manhattan distances between tiles and goal
+    public static final Heuristic MANHATTAN = new LinearConflict(false);
+
+    // Manhattan distance plus 2 moves for every tile that has to step out of its goal row or
+    // column to let others in that line past it; in each line, the tiles that can stay are the
+    // longest run already in goal order, so the bound stays admissible for any number of
+    // tiles in conflict
+    public static final Heuristic LINEAR_CONFLICT = new LinearConflict(true);
+
     private SearchNode solution;
     private boolean solvable;
+    private final Heuristic heuristic;
+    // the heuristic's copy for this search, and the tiles of the board it is estimating
+    private Heuristic estimator;
+    private int[] tiles;
 
     private class SearchNode implements Comparable<SearchNode> {
         private final Board board;
         private final int moves;
         private final SearchNode previous;
-        private final int manhattan;
+        private final int estimate;
 
         // initialize each node to the initial board passed in to the class and calculate its
-        // manhattan distance for caching, as well as its number of moves which is based on its
+        // heuristic estimate for caching, as well as its number of moves which is based on its
         // previous nodes number of moves
         public SearchNode(Board initial, SearchNode previous) {
             board = initial;
             this.previous = previous;
-            manhattan = board.manhattan();
+            estimate = estimate(board);
             if (this.previous == null) {
                 moves = 0;
             }
@@ -47,74 +100,424 @@ public class Solver {
             return previous;
         }
 
-        public int getManhattan() {
-            return manhattan;
+        public int getEstimate() {
+            return estimate;
         }
 
+        // by estimated total moves, then by the smaller estimate of the moves left, since of two
+        // nodes with the same total the one further along is usually closer to the goal
         public int compareTo(SearchNode that) {
-            return (getManhattan() + getMoves()) - (that.getManhattan() + that.getMoves());
+            int byTotal = (getEstimate() + getMoves()) - (that.getEstimate() + that.getMoves());
+            if (byTotal != 0) return byTotal;
+            return getEstimate() - that.getEstimate();
+        }
+    }
+
+    // map from Zobrist hash to the fewest moves a board was reached in, by linear probing;
+    // 0 marks an empty slot, so a hash of 0 is kept on the side
+    private static final class BestMoves {
+        private long[] keys = new long[1024];
+        private int[] moves = new int[1024];
+        private int size;
+        private boolean hasZero;
+        private int zeroMoves;
+
+        // record that the board with the given hash was reached in the given moves; return
+        // false, changing nothing, if it was already reached in as few
+        boolean improve(long hash, int reached) {
+            if (hash == 0) {
+                if (hasZero && zeroMoves <= reached) return false;
+                hasZero = true;
+                zeroMoves = reached;
+                return true;
+            }
+            int i = slot(hash);
+            if (keys[i] == hash) {
+                if (moves[i] <= reached) return false;
+                moves[i] = reached;
+                return true;
+            }
+            keys[i] = hash;
+            moves[i] = reached;
+            if (++size > keys.length / 2) resize();
+            return true;
+        }
+
+        // fewest moves the board with the given hash was reached in, or Integer.MAX_VALUE
+        int get(long hash) {
+            if (hash == 0) return hasZero ? zeroMoves : Integer.MAX_VALUE;
+            int i = slot(hash);
+            return keys[i] == hash ? moves[i] : Integer.MAX_VALUE;
+        }
+
+        // the slot holding hash, or the empty slot where it would go
+        private int slot(long hash) {
+            int mask = keys.length - 1;
+            int i = (int) (hash ^ (hash >>> 32)) & mask;
+            while (keys[i] != 0 && keys[i] != hash) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldMoves = moves;
+            keys = new long[2 * oldKeys.length];
+            moves = new int[2 * oldKeys.length];
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0) {
+                    int i = slot(oldKeys[j]);
+                    keys[i] = oldKeys[j];
+                    moves[i] = oldMoves[j];
+                }
+            }
         }
     }
 
     // find a solution to the initial board (using the A* algorithm)
     public Solver(Board initial) {
+        this(initial, Algorithm.A_STAR);
+    }
 
-        // ensure proper parameter
+    // find a solution to the initial board using the given algorithm
+    public Solver(Board initial, Algorithm algorithm) {
+        this(initial, algorithm, MANHATTAN);
+    }
+
+    // find a solution to the initial board using the given algorithm and heuristic
+    public Solver(Board initial, Algorithm algorithm, Heuristic heuristic) {
+
+        // ensure proper parameters
         if (initial == null) throw new IllegalArgumentException("Board is empty");
+        if (algorithm == null) throw new IllegalArgumentException("Please enter an algorithm");
+        if (heuristic == null) throw new IllegalArgumentException("Please enter a heuristic");
+        this.heuristic = heuristic;
+        estimator = heuristic.forSearch(initial.dimension());
+        tiles = new int[initial.dimension() * initial.dimension()];
+
+        if (algorithm == Algorithm.IDA_STAR) iterativeDeepening(initial);
+        else aStar(initial);
+    }
+
+    // search with A*, after checking that the board is solvable
+    private void aStar(Board initial) {
+        if (!initial.isSolvable()) return;
 
-        // create two priority queues; pq to find the solution if solvable, and pq2 to determine
-        // if the puzzle is unsolvable.
         MinPQ<SearchNode> pq = new MinPQ<>();
-        MinPQ<SearchNode> pq2 = new MinPQ<>();
+        BestMoves best = new BestMoves();
 
-        // insert initial node containing the initial board into the solution pq
+        // insert initial node containing the initial board into the pq
         pq.insert(new SearchNode(initial, null));
-        // insert initial node containing the twin of the initial board into the "unsolvable" pq
-        pq2.insert(new SearchNode(initial.twin(), null));
-
-        solvable = false;
+        best.improve(initial.zobrist(), 0);
 
         while (true) {
-            SearchNode previous = pq.delMin();
+            SearchNode previous = nextNode(pq, best);
             // if the minimum element in the queue is the solution, store it and end the loop
             if (previous.getBoard().isGoal()) {
                 solution = previous;
                 solvable = true;
-                break;
-            }
-            // if solution is found in the board's twin, solution is unsolvable; end the loop
-            SearchNode previousTwin = pq2.delMin();
-            if (previousTwin.getBoard().isGoal()) {
                 return;
             }
+            expand(previous, pq, best);
+        }
+    }
+
+    // search with iterative deepening A*, after checking that the board is solvable
+    private void iterativeDeepening(Board initial) {
+        if (!initial.isSolvable()) return;
+        int[] path = new IterativeDeepening(initial, estimator)
+                .solve();
+        SearchNode node = new SearchNode(initial, null);
+        for (int from : path) {
+            node = new SearchNode(node.getBoard().moved(from), node);
+        }
+        solution = node;
+        solvable = true;
+    }
+
+    // the heuristic's estimate for the board; Board keeps manhattan up to date itself
+    private int estimate(Board board) {
+        if (heuristic == MANHATTAN) return board.manhattan();
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = board.tile(i);
+        }
+        return estimator.estimate(tiles);
+    }
+
+    // manhattan distance, plus linear conflicts if asked for
+    private static final class LinearConflict implements Heuristic {
+
+        private final boolean conflicts;
+        // board dimension of a search's copy, and its scratch space for one line; n is 0 for
+        // the shared instances, which make a copy on every call
+        private final int n;
+        private final int[] line;
+        private final int[] length;
+        // row and column of each index, which spares dividing by n
+        private final int[] rows;
+        private final int[] cols;
+
+        LinearConflict(boolean conflicts) {
+            this(conflicts, 0);
+        }
+
+        private LinearConflict(boolean conflicts, int n) {
+            this.conflicts = conflicts;
+            this.n = n;
+            line = new int[n];
+            length = new int[n];
+            rows = new int[n * n];
+            cols = new int[n * n];
+            for (int i = 0; i < n * n; i++) {
+                rows[i] = i / n;
+                cols[i] = i % n;
+            }
+        }
 
-            for (Board board : previous.getBoard().neighbors()) {
-                // ensure that no duplicate boards are added to the queue
-                if (previous.getPrevious() != null && previous.getPrevious().getBoard()
-                                                              .equals(board)) continue;
+        public Heuristic forSearch(int n) {
+            return new LinearConflict(conflicts, n);
+        }
 
-                // add neighbors to queue iff the neighbor has a lower manhattan distance than
-                // previous element on queue
-                else {
-                    SearchNode node = new SearchNode(board, previous);
-                    if (node.getManhattan() == previous.getManhattan() - 1
-                            || node.getManhattan() == previous.getManhattan() + 1) pq.insert(node);
+        public int estimate(int[] tiles) {
+            if (n == 0) return forSearch((int) Math.round(Math.sqrt(tiles.length))).estimate(tiles);
+            if (tiles.length != n * n) {
+                throw new IllegalArgumentException("Board is not " + n + "-by-" + n);
+            }
+            int sum = 0;
+            for (int i = 0; i < tiles.length; i++) {
+                if (tiles[i] != 0) {
+                    int goal = tiles[i] - 1;
+                    sum += Math.abs(rows[i] - rows[goal]) + Math.abs(cols[i] - cols[goal]);
+                }
+            }
+            if (!conflicts) return sum;
+            for (int i = 0; i < n; i++) {
+                sum += rowConflicts(tiles, i) + columnConflicts(tiles, i);
+            }
+            return sum;
+        }
+
+        // moves added for the tiles in their goal row that have to leave it to let the others
+        // past: the goal columns of those tiles, in row order, outside their longest
+        // increasing run
+        int rowConflicts(int[] tiles, int row) {
+            int k = 0;
+            for (int col = 0; col < n; col++) {
+                int tile = tiles[row * n + col];
+                if (tile != 0 && rows[tile - 1] == row) line[k++] = cols[tile - 1];
+            }
+            return 2 * (k - longestIncreasing(k));
+        }
+
+        // the same for the tiles in their goal column
+        int columnConflicts(int[] tiles, int col) {
+            int k = 0;
+            for (int row = 0; row < n; row++) {
+                int tile = tiles[row * n + col];
+                if (tile != 0 && cols[tile - 1] == col) line[k++] = rows[tile - 1];
+            }
+            return 2 * (k - longestIncreasing(k));
+        }
+
+        // length of the longest increasing subsequence of line[0 .. k - 1], in O(k^2)
+        private int longestIncreasing(int k) {
+            int best = 0;
+            for (int i = 0; i < k; i++) {
+                length[i] = 1;
+                for (int j = 0; j < i; j++) {
+                    if (line[j] < line[i]) length[i] = Math.max(length[i], length[j] + 1);
+                }
+                best = Math.max(best, length[i]);
+            }
+            return best;
+        }
+    }
+
+    // depth-first search over one mutable copy of the tiles; see the class comment
+    private static final class IterativeDeepening {
+
+        // returned by search() when it reaches the goal
+        private static final int FOUND = -1;
+
+        private final int n;
+        // the heuristic to call at every node, or null to use the manhattan distance (and
+        // linear conflicts) kept below
+        private final Heuristic heuristic;
+        // the linear conflict heuristic whose per-line counts are kept below, or null
+        private final LinearConflict lines;
+        private final int[] tiles;
+        // row and column of each index
+        private final int[] rows;
+        private final int[] cols;
+        private int blank;
+        private int manhattan;
+        // the conflicts in each row and column and their sum, while lines is not null
+        private final int[] rowConflicts;
+        private final int[] columnConflicts;
+        private int conflicts;
+        // the blank's position after each move of the current path
+        private int[] path = new int[64];
+        // the counts of the two lines the move at each depth changed, from before it
+        private int[] savedConflicts = new int[128];
+        private int length;
+
+        // MANHATTAN and LINEAR_CONFLICT are kept up to date move by move, since a move changes
+        // the distance of one tile and the conflicts of two lines; any other heuristic is
+        // asked about every node
+        IterativeDeepening(Board initial, Heuristic heuristic) {
+            n = initial.dimension();
+            if (heuristic instanceof LinearConflict) {
+                LinearConflict linear = (LinearConflict) heuristic;
+                lines = linear.conflicts ? linear : null;
+                this.heuristic = null;
+            }
+            else {
+                lines = null;
+                this.heuristic = heuristic;
+            }
+            tiles = new int[n * n];
+            rows = new int[n * n];
+            cols = new int[n * n];
+            for (int i = 0; i < n * n; i++) {
+                tiles[i] = initial.tile(i);
+                rows[i] = i / n;
+                cols[i] = i % n;
+            }
+            blank = initial.blank();
+            manhattan = initial.manhattan();
+            rowConflicts = new int[n];
+            columnConflicts = new int[n];
+            if (lines != null) {
+                for (int i = 0; i < n; i++) {
+                    rowConflicts[i] = lines.rowConflicts(tiles, i);
+                    columnConflicts[i] = lines.columnConflicts(tiles, i);
+                    conflicts += rowConflicts[i] + columnConflicts[i];
                 }
             }
+        }
+
+        // the estimate of the moves left from the current tiles
+        private int estimate() {
+            return heuristic == null ? manhattan + conflicts : heuristic.estimate(tiles);
+        }
+
+        // the blank's position after each move of a shortest solution; the board must be
+        // solvable
+        int[] solve() {
+            int bound = estimate();
+            while (true) {
+                int next = search(0, bound, -1);
+                if (next == FOUND) return Arrays.copyOf(path, length);
+                bound = next;
+            }
+        }
 
-            // same as above, but for twin board
-            for (Board board : previousTwin.getBoard().neighbors()) {
-                if (previousTwin.getPrevious() != null && previousTwin.getPrevious().getBoard()
-                                                                      .equals(board))
-                    continue;
-                else {
-                    SearchNode node = new SearchNode(board, previousTwin);
-                    if (node.getManhattan() == previousTwin.getManhattan() - 1
-                            || node.getManhattan() == previousTwin.getManhattan() + 1)
-                        pq2.insert(node);
+        // searches on from a path of the given moves, whose blank was at previous before the
+        // last move; returns FOUND, or the smallest moves + estimate that exceeded bound
+        private int search(int moves, int bound, int previous) {
+            int estimate = moves + estimate();
+            if (estimate > bound) return estimate;
+            if (manhattan == 0) {
+                length = moves;
+                return FOUND;
+            }
+            if (moves == path.length) {
+                path = Arrays.copyOf(path, 2 * path.length);
+                savedConflicts = Arrays.copyOf(savedConflicts, 2 * savedConflicts.length);
+            }
+            int from = blank;
+            int min = Integer.MAX_VALUE;
+            for (int d = 0; d < 4; d++) {
+                int to = neighbor(from, d);
+                // moving the tile straight back only undoes the last move
+                if (to < 0 || to == previous) continue;
+                int tile = tiles[to];
+                int delta = distance(tile, from) - distance(tile, to);
+                tiles[from] = tile;
+                tiles[to] = 0;
+                blank = to;
+                manhattan += delta;
+                int conflictsBefore = conflicts;
+                if (lines != null) updateConflicts(moves, from, to);
+                path[moves] = to;
+                int next = search(moves + 1, bound, from);
+                tiles[to] = tile;
+                tiles[from] = 0;
+                blank = from;
+                manhattan -= delta;
+                if (lines != null) {
+                    restoreConflicts(moves, from, to);
+                    conflicts = conflictsBefore;
                 }
+                if (next == FOUND) return FOUND;
+                min = Math.min(min, next);
+            }
+            return min;
+        }
+
+        // recounts the conflicts of the lines that the tile moving between indices a and b at
+        // the given depth left and entered: its two rows if it moved vertically, its two
+        // columns if horizontally, since the order of the tiles in every other line is
+        // unchanged; the old counts are saved for restoreConflicts()
+        private void updateConflicts(int depth, int a, int b) {
+            boolean vertical = cols[a] == cols[b];
+            int[] counts = vertical ? rowConflicts : columnConflicts;
+            int lineA = vertical ? rows[a] : cols[a];
+            int lineB = vertical ? rows[b] : cols[b];
+            savedConflicts[2 * depth] = counts[lineA];
+            savedConflicts[2 * depth + 1] = counts[lineB];
+            counts[lineA] = vertical ? lines.rowConflicts(tiles, lineA)
+                                     : lines.columnConflicts(tiles, lineA);
+            counts[lineB] = vertical ? lines.rowConflicts(tiles, lineB)
+                                     : lines.columnConflicts(tiles, lineB);
+            conflicts += counts[lineA] - savedConflicts[2 * depth]
+                    + counts[lineB] - savedConflicts[2 * depth + 1];
+        }
+
+        // puts back the line counts updateConflicts() saved at the given depth
+        private void restoreConflicts(int depth, int a, int b) {
+            boolean vertical = cols[a] == cols[b];
+            int[] counts = vertical ? rowConflicts : columnConflicts;
+            counts[vertical ? rows[a] : cols[a]] = savedConflicts[2 * depth];
+            counts[vertical ? rows[b] : cols[b]] = savedConflicts[2 * depth + 1];
+        }
+
+        // index next to i in direction d (up, down, left, right), or -1 off the board
+        private int neighbor(int i, int d) {
+            switch (d) {
+                case 0:
+                    return rows[i] > 0 ? i - n : -1;
+                case 1:
+                    return rows[i] < n - 1 ? i + n : -1;
+                case 2:
+                    return cols[i] > 0 ? i - 1 : -1;
+                default:
+                    return cols[i] < n - 1 ? i + 1 : -1;
             }
+        }
+
+        // Manhattan distance between index i and the goal index of tile
+        private int distance(int tile, int i) {
+            return Math.abs(rows[i] - rows[tile - 1]) + Math.abs(cols[i] - cols[tile - 1]);
+        }
+    }
+
+    // remove and return the node with the lowest estimate, skipping stale nodes whose board
+    // has since been reached in fewer moves
+    private SearchNode nextNode(MinPQ<SearchNode> pq, BestMoves best) {
+        SearchNode node = pq.delMin();
+        while (node.getMoves() > best.get(node.getBoard().zobrist())) {
+            node = pq.delMin();
+        }
+        return node;
+    }
 
+    // add the neighbors of node to the queue that have not been reached in as few moves
+    private void expand(SearchNode node, MinPQ<SearchNode> pq, BestMoves best) {
+        int moves = node.getMoves() + 1;
+        for (Board board : node.getBoard().neighbors()) {
+            if (best.improve(board.zobrist(), moves)) pq.insert(new SearchNode(board, node));
         }
     }
 
@@ -146,7 +549,7 @@ public class Solver {
     }
 
     // test client (see below)
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // create initial board from file
         In in = new In(args[0]);
         int n = in.readInt();
@@ -155,9 +558,18 @@ public class Solver {
             for (int j = 0; j < n; j++)
                 tiles[i][j] = in.readInt();
         Board initial = new Board(tiles);
+        Algorithm algorithm = args.length > 1 ? Algorithm.valueOf(args[1]) : Algorithm.A_STAR;
+        // MANHATTAN, LINEAR_CONFLICT, or a pattern database file, built there if missing
+        Heuristic heuristic = MANHATTAN;
+        if (args.length > 2) {
+            if (args[2].equals("LINEAR_CONFLICT")) heuristic = LINEAR_CONFLICT;
+            else if (!args[2].equals("MANHATTAN")) {
+                heuristic = PatternDatabase.open(Path.of(args[2]), n);
+            }
+        }
 
         // solve the puzzle
-        Solver solver = new Solver(initial);
+        Solver solver = new Solver(initial, algorithm, heuristic);
 
         // print solution to standard output
         if (!solver.isSolvable())
@@ -0,0 +1,229 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Randomized queue that samples items in proportion to their weights
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// RandomizedQueue where dequeue and sample choose each item with probability weight / total
+// weight. The items and weights sit in parallel arrays, and a Fenwick tree over the weights
+// answers "which item does cumulative weight r fall in" by one walk down the tree, so enqueue,
+// dequeue and sample are O(log n). As in RandomizedQueue, a dequeued item's slot is filled
+// with the last item. The tree holds doubles, so updates leave rounding residue behind; it is
+// rebuilt from the exact weights whenever the arrays resize and after every capacity updates,
+// which keeps the error bounded at O(1) amortized cost. For a set that never changes,
+// AliasTable samples in O(1).
+public class WeightedRandomizedQueue<Item> implements Iterable<Item> {
+
+    // smallest capacity the arrays shrink back to; always a power of two
+    private static final int MIN_CAPACITY = 8;
+
+    private Item[] items;
+    private double[] weights;
+    // tree[i] is the sum of weights[i - (i & -i) .. i - 1]; tree[0] is unused
+    private double[] tree;
+    private int size;
+    // updates to the tree since it was last rebuilt
+    private int updates;
+
+    // construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+        weights = new double[MIN_CAPACITY];
+        tree = new double[MIN_CAPACITY + 1];
+    }
+
+    // copy of the queue, for the iterator
+    private WeightedRandomizedQueue(WeightedRandomizedQueue<Item> queue) {
+        int capacity = queue.items.length;
+        items = (Item[]) new Object[capacity];
+        weights = new double[capacity];
+        tree = new double[capacity + 1];
+        size = queue.size;
+        System.arraycopy(queue.items, 0, items, 0, size);
+        System.arraycopy(queue.weights, 0, weights, 0, size);
+        rebuild();
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return size;
+    }
+
+    // return the sum of the weights of the items on the queue
+    public double totalWeight() {
+        return prefix(size);
+    }
+
+    // add the item with the given positive weight
+    public void enqueue(Item item, double weight) {
+        if (item == null)
+            throw new IllegalArgumentException("Please enter a valid item to enqueue");
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("weight must be positive and finite");
+        }
+        if (size == items.length) resize(2 * items.length);
+        items[size] = item;
+        weights[size] = weight;
+        add(size, weight);
+        size++;
+        rebuildIfStale();
+    }
+
+    // remove and return a random item, chosen in proportion to its weight
+    public Item dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        int index = pick();
+        Item item = items[index];
+        int last = size - 1;
+        if (index != last) {
+            add(index, weights[last] - weights[index]);
+            items[index] = items[last];
+            weights[index] = weights[last];
+        }
+        add(last, -weights[last]);
+        items[last] = null;
+        weights[last] = 0;
+        size--;
+        if (items.length > MIN_CAPACITY && size <= items.length / 4) {
+            resize(items.length / 2);
+        }
+        else {
+            rebuildIfStale();
+        }
+        return item;
+    }
+
+    // return a random item, chosen in proportion to its weight (but do not remove it)
+    public Item sample() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        return items[pick()];
+    }
+
+    // index of a random item, chosen in proportion to its weight
+    private int pick() {
+        double r = StdRandom.uniform() * prefix(size);
+        // descend from the largest power of two, keeping the invariant prefix(index) <= r
+        int index = 0;
+        for (int step = items.length; step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= items.length && tree[next] <= r) {
+                r -= tree[next];
+                index = next;
+            }
+        }
+        // rounding residue can point past the last item or at a weight the draw cannot reach
+        return Math.min(index, size - 1);
+    }
+
+    // adds delta to weights[index]'s entries in the tree
+    private void add(int index, double delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        updates++;
+    }
+
+    // rebuilds the tree once it has taken capacity updates, to clear out rounding residue;
+    // only called when the weights array is consistent
+    private void rebuildIfStale() {
+        if (updates >= items.length) rebuild();
+    }
+
+    // sum of weights[0 .. n - 1] according to the tree
+    private double prefix(int n) {
+        double sum = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // moves the items and weights to arrays of the given capacity and rebuilds the tree
+    private void resize(int capacity) {
+        Item[] newItems = (Item[]) new Object[capacity];
+        double[] newWeights = new double[capacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        System.arraycopy(weights, 0, newWeights, 0, size);
+        items = newItems;
+        weights = newWeights;
+        tree = new double[capacity + 1];
+        rebuild();
+    }
+
+    // recomputes the tree from the weights in O(capacity)
+    private void rebuild() {
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] = weights[i - 1];
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+        updates = 0;
+    }
+
+    // return an independent iterator over the items in weighted random order: each call to
+    // next() returns one of the remaining items with probability proportional to its weight,
+    // as a run of dequeues would; like RandomizedQueue's iterator it works on a copy, so
+    // later changes to the queue do not affect it
+    public Iterator<Item> iterator() {
+        return new WeightedIterator();
+    }
+
+    private class WeightedIterator implements Iterator<Item> {
+
+        private final WeightedRandomizedQueue<Item> copy =
+                new WeightedRandomizedQueue<>(WeightedRandomizedQueue.this);
+
+        @Override
+        public boolean hasNext() {
+            return !copy.isEmpty();
+        }
+
+        @Override
+        public Item next() {
+            if (copy.isEmpty()) throw new NoSuchElementException("Queue is empty");
+            return copy.dequeue();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("This operation is not allowed");
+        }
+    }
+
+    // unit testing: samples items of weight 1, 2, 3 and 4 and compares the frequencies with
+    // 10%, 20%, 30% and 40%
+    public static void main(String[] args) {
+        WeightedRandomizedQueue<String> queue = new WeightedRandomizedQueue<>();
+        String[] names = { "one", "two", "three", "four" };
+        for (int i = 0; i < names.length; i++) {
+            queue.enqueue(names[i], i + 1);
+        }
+        int draws = 1000000;
+        int[] counts = new int[names.length];
+        for (int d = 0; d < draws; d++) {
+            String item = queue.sample();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(item)) counts[i]++;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-5s weight %d: %.4f%n", names[i], i + 1, (double) counts[i] / draws);
+        }
+        for (String item : queue) System.out.print(item + " ");
+        System.out.println();
+        while (!queue.isEmpty()) System.out.print(queue.dequeue() + " ");
+        System.out.println("size = " + queue.size());
+    }
+}
@@ -0,0 +1,176 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Work-stealing deque
+ **************************************************************************** */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Chase and Lev's dynamic circular work-stealing deque ("Dynamic Circular Work-Stealing Deque",
+// 2005), with the fences of Le et al. ("Correct and Efficient Work-Stealing for Weak Memory
+// Models", 2013). One owner thread calls push and pop at the bottom; any number of thieves call
+// steal at the top. push never waits and pop only competes with thieves for the last item, so
+// the owner's end is wait-free and thieves contend with each other on one CAS of top.
+//
+// top and bottom only ever increase (pop decrements bottom and, if the deque was empty,
+// restores it), so an index names the same item for as long as it is on the deque, and the
+// slot is index & mask in whichever array is current. Growing copies the live range into a
+// twice-as-large array and publishes it; a thief still reading the old array finds the same
+// items there, so it needs no lock. The array never shrinks, and a stolen slot keeps its
+// reference until the owner overwrites it, since a thief cannot tell whether the owner has
+// already reused the slot.
+public class WorkStealingDeque<Item> {
+
+    // initial capacity; always a power of two
+    private static final int MIN_CAPACITY = 32;
+
+    private static final VarHandle TOP;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // index of the oldest item, advanced by a successful steal or by pop taking the last item
+    private volatile long top;
+    // index one past the newest item, written only by the owner
+    private volatile long bottom;
+    private volatile Object[] items = new Object[MIN_CAPACITY];
+
+    // construct an empty deque
+    public WorkStealingDeque() {
+    }
+
+    // is the deque empty? a snapshot if other threads are stealing
+    public boolean isEmpty() {
+        return bottom <= top;
+    }
+
+    // return the number of items on the deque; a snapshot if other threads are stealing
+    public int size() {
+        long size = bottom - top;
+        return size > 0 ? (int) size : 0;
+    }
+
+    // add the item to the bottom; only the owner may call this
+    public void push(Item item) {
+        if (item == null) throw new IllegalArgumentException("Please enter a valid item");
+        long b = bottom;
+        long t = top;
+        Object[] a = items;
+        if (b - t >= a.length) {
+            a = grow(a, t, b);
+        }
+        SLOT.setRelease(a, (int) b & (a.length - 1), item);
+        bottom = b + 1;
+    }
+
+    // remove and return the item at the bottom, or null if the deque is empty; only the owner
+    // may call this
+    public Item pop() {
+        long b = bottom - 1;
+        Object[] a = items;
+        // the volatile write of bottom followed by the volatile read of top is the store-load
+        // fence that keeps a thief and the owner from both taking the last item
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        int slot = (int) b & (a.length - 1);
+        Item item = (Item) SLOT.getAcquire(a, slot);
+        if (t == b) {
+            // last item: race the thieves for it through top
+            if (!TOP.compareAndSet(this, t, t + 1)) item = null;
+            bottom = b + 1;
+            return item;
+        }
+        // no thief can reach index b while top < b, so the slot can be cleared
+        SLOT.setRelease(a, slot, null);
+        return item;
+    }
+
+    // remove and return the item at the top, or null if the deque is empty; any thread may call
+    // this, and a thief that loses the race for an item retries on the next one
+    public Item steal() {
+        while (true) {
+            long t = top;
+            long b = bottom;
+            if (t >= b) return null;
+            Object[] a = items;
+            Item item = (Item) SLOT.getAcquire(a, (int) t & (a.length - 1));
+            if (TOP.compareAndSet(this, t, t + 1)) return item;
+        }
+    }
+
+    // copies indices t to b - 1 into an array twice as large and publishes it
+    private Object[] grow(Object[] a, long t, long b) {
+        Object[] copy = new Object[a.length * 2];
+        int oldMask = a.length - 1;
+        int newMask = copy.length - 1;
+        for (long i = t; i < b; i++) {
+            copy[(int) i & newMask] = a[(int) i & oldMask];
+        }
+        items = copy;
+        return copy;
+    }
+
+    // unit testing: the owner pushes and pops while thieves steal, then every item is checked
+    // to have been taken exactly once
+    public static void main(String[] args) throws InterruptedException {
+        int thieves = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int n = 1000000;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        int[] taken = new int[n];
+        Thread[] workers = new Thread[thieves];
+        boolean[] done = new boolean[1];
+        for (int i = 0; i < thieves; i++) {
+            workers[i] = new Thread(() -> {
+                while (true) {
+                    Integer item = deque.steal();
+                    if (item != null) {
+                        synchronized (taken) {
+                            taken[item]++;
+                        }
+                    }
+                    else {
+                        synchronized (done) {
+                            if (done[0] && deque.isEmpty()) return;
+                        }
+                    }
+                }
+            });
+            workers[i].start();
+        }
+        int popped = 0;
+        for (int i = 0; i < n; i++) {
+            deque.push(i);
+            if (i % 3 == 0) {
+                Integer item = deque.pop();
+                if (item != null) {
+                    popped++;
+                    synchronized (taken) {
+                        taken[item]++;
+                    }
+                }
+            }
+        }
+        synchronized (done) {
+            done[0] = true;
+        }
+        for (Thread worker : workers) worker.join();
+        int once = 0;
+        for (int count : taken) {
+            if (count == 1) once++;
+        }
+        System.out.println("pushed = " + n + ", taken exactly once = " + once
+                                   + ", popped by owner = " + popped);
+    }
+}
@@ -0,0 +1,868 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Benchmark workloads over the assignment classes
+ **************************************************************************** */
+
+import bench.Workload;
+import bench.WorkloadFactory;
+import edu.princeton.cs.algs4.Digraph;
+import edu.princeton.cs.algs4.Picture;
+import edu.princeton.cs.algs4.Point2D;
+import edu.princeton.cs.algs4.RectHV;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Lives in the default package so it can reach the assignment classes; see bench.Workloads.
+// Every input is generated from the seed during setup, so only the measured operation runs
+// inside Workload.run().
+public class BenchmarkWorkloads implements WorkloadFactory {
+
+    // number of precomputed queries that per-query workloads cycle through
+    private static final int QUERIES = 1024;
+
+    // most items a draining consumer takes per lock acquisition
+    private static final int DRAIN_BATCH = 64;
+
+    @Override
+    public Workload create(String name, int size, long seed) {
+        if (size <= 0) throw new IllegalArgumentException("size must be greater than 0");
+        SplittableRandom random = new SplittableRandom(seed);
+        StdRandom.setSeed(seed);
+        switch (name) {
+            case "Percolation.open":
+                return percolationOpen(size, random);
+            case "Deque.addLastRemoveFirst":
+                return dequeAddLastRemoveFirst(size);
+            case "Deque.addFirstRemoveLast":
+                return dequeAddFirstRemoveLast(size);
+            case "RingDeque.addLastRemoveFirst":
+                return ringDequeAddLastRemoveFirst(size);
+            case "RingDeque.addFirstRemoveLast":
+                return ringDequeAddFirstRemoveLast(size);
+            case "IntDeque.addLastRemoveFirst":
+                return intDequeAddLastRemoveFirst(size);
+            case "IntDeque.addFirstRemoveLast":
+                return intDequeAddFirstRemoveLast(size);
+            case "PersistentDeque.addLastRemoveFirst":
+                return persistentDequeAddLastRemoveFirst(size);
+            case "PersistentDeque.addFirstRemoveLast":
+                return persistentDequeAddFirstRemoveLast(size);
+            case "ConcurrentDeque.pushPop":
+                return concurrentDequePushPop(size);
+            case "LockedDeque.pushPop":
+                return lockedDequePushPop(size);
+            case "RandomizedQueue.enqueueDequeue":
+                return randomizedQueueEnqueueDequeue(size);
+            case "Permutation.stream":
+                return permutationStream(size, random);
+            case "ConcurrentRandomizedQueue.enqueueDequeue":
+                return concurrentRandomizedQueueEnqueueDequeue(size);
+            case "LockedRandomizedQueue.enqueueDequeue":
+                return lockedRandomizedQueueEnqueueDequeue(size);
+            case "RandomizedQueue.permutation":
+                return randomizedQueuePermutation(size, random);
+            case "RandomizedQueue.permutationBulk":
+                return randomizedQueuePermutationBulk(size, random);
+            case "RandomizedQueue.iterator":
+                return randomizedQueueIterate(size, false);
+            case "RandomizedQueue.lazyIterator":
+                return randomizedQueueIterate(size, true);
+            case "WeightedRandomizedQueue.sample":
+                return weightedRandomizedQueueSample(size, random);
+            case "WeightedRandomizedQueue.dequeueEnqueue":
+                return weightedRandomizedQueueDequeueEnqueue(size, random);
+            case "AliasTable.sample":
+                return aliasTableSample(size, random);
+            case "IntRandomizedQueue.enqueueDequeue":
+                return intRandomizedQueueEnqueueDequeue(size);
+            case "FastCollinearPoints.new":
+                return fastCollinearPoints(size, random);
+            case "Solver.new":
+                return solver(3, size, random, Solver.Algorithm.A_STAR, Solver.MANHATTAN);
+            case "Solver.new4x4":
+                return solver(4, size, random, Solver.Algorithm.A_STAR, Solver.MANHATTAN);
+            case "Solver.new5x5":
+                return solver(5, size, random, Solver.Algorithm.A_STAR, Solver.MANHATTAN);
+            case "Solver.idaStar":
+                return solver(3, size, random, Solver.Algorithm.IDA_STAR, Solver.MANHATTAN);
+            case "Solver.idaStar4x4":
+                return solver(4, size, random, Solver.Algorithm.IDA_STAR, Solver.MANHATTAN);
+            case "Solver.idaStar5x5":
+                return solver(5, size, random, Solver.Algorithm.IDA_STAR, Solver.MANHATTAN);
+            case "Solver.idaStarLinearConflict":
+                return solver(3, size, random, Solver.Algorithm.IDA_STAR,
+                              Solver.LINEAR_CONFLICT);
+            case "Solver.idaStarLinearConflict4x4":
+                return solver(4, size, random, Solver.Algorithm.IDA_STAR,
+                              Solver.LINEAR_CONFLICT);
+            case "Solver.idaStarLinearConflict5x5":
+                return solver(5, size, random, Solver.Algorithm.IDA_STAR,
+                              Solver.LINEAR_CONFLICT);
+            case "Solver.idaStarPatternDatabase":
+                return solver(3, size, random, Solver.Algorithm.IDA_STAR,
+                              patternDatabase(3));
+            case "Solver.idaStarPatternDatabase4x4":
+                return solver(4, size, random, Solver.Algorithm.IDA_STAR,
+                              patternDatabase(4));
+            case "Solver.idaStarPatternDatabase5x5":
+                return solver(5, size, random, Solver.Algorithm.IDA_STAR,
+                              patternDatabase(5));
+            case "KdTree.nearest":
+                return kdTreeNearest(size, random);
+            case "KdTree.range":
+                return kdTreeRange(size, random);
+            case "SAP.length":
+                return sapLength(size, random);
+            case "SeamCarver.findVerticalSeam":
+                return seamCarverFindVerticalSeam(size, random);
+            case "BoggleSolver.getAllValidWords":
+                return boggleSolverGetAllValidWords(size, random);
+            default:
+                throw new IllegalArgumentException("Unknown workload " + name);
+        }
+    }
+
+    @Override
+    public Workload[] createRoles(String name, int size, long seed) {
+        if (size <= 0) throw new IllegalArgumentException("size must be greater than 0");
+        switch (name) {
+            case "WorkStealingDeque.ownerThief":
+                return workStealingDequeOwnerThief(size);
+            case "LockedDeque.ownerThief":
+                return lockedDequeOwnerThief(size);
+            case "BoundedBlockingDeque.putTake":
+                return boundedBlockingDequeProducerConsumer(size, false);
+            case "BoundedBlockingDeque.putDrain":
+                return boundedBlockingDequeProducerConsumer(size, true);
+            case "LinkedBlockingDeque.putTake":
+                return linkedBlockingDequeProducerConsumer(size, false);
+            case "LinkedBlockingDeque.putDrain":
+                return linkedBlockingDequeProducerConsumer(size, true);
+            default:
+                throw new IllegalArgumentException("Unknown workload " + name);
+        }
+    }
+
+    // builds an n-by-n grid and opens sites in a fixed random order until it percolates
+    private static Workload percolationOpen(int n, SplittableRandom random) {
+        int[] order = shuffledIndices(n * n, random);
+        return () -> {
+            Percolation perc = new Percolation(n);
+            for (int i = 0; !perc.percolates(); i++) {
+                perc.open(order[i] / n + 1, order[i] % n + 1);
+            }
+            return perc.numberOfOpenSites();
+        };
+    }
+
+    // pushes size items on the back of a deque and pops them all off the front
+    private static Workload dequeAddLastRemoveFirst(int size) {
+        Integer[] items = boxed(size);
+        return () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (Integer item : items) {
+                deque.addLast(item);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            return sum;
+        };
+    }
+
+    // pushes size items on the front of a deque and pops them all off the back
+    private static Workload dequeAddFirstRemoveLast(int size) {
+        Integer[] items = boxed(size);
+        return () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (Integer item : items) {
+                deque.addFirst(item);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            return sum;
+        };
+    }
+
+    // same as dequeAddLastRemoveFirst, on the circular-array deque
+    private static Workload ringDequeAddLastRemoveFirst(int size) {
+        Integer[] items = boxed(size);
+        return () -> {
+            RingDeque<Integer> deque = new RingDeque<>();
+            for (Integer item : items) {
+                deque.addLast(item);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            return sum;
+        };
+    }
+
+    // same as dequeAddFirstRemoveLast, on the circular-array deque
+    private static Workload ringDequeAddFirstRemoveLast(int size) {
+        Integer[] items = boxed(size);
+        return () -> {
+            RingDeque<Integer> deque = new RingDeque<>();
+            for (Integer item : items) {
+                deque.addFirst(item);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            return sum;
+        };
+    }
+
+    // a pipeline stage through a deque of capacity size: role 0 is a producer adding one item
+    // at the back, role 1 a consumer taking one item from the front, or with drain, taking one
+    // and draining up to DRAIN_BATCH - 1 more under the same lock; both wait at most a
+    // millisecond, so neither hangs when the benchmark stops the other
+    private static Workload[] boundedBlockingDequeProducerConsumer(int size, boolean drain) {
+        Integer item = 1;
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(size);
+        Workload producer = () -> {
+            try {
+                return deque.offerLast(item, 1, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+        List<Integer> batch = new ArrayList<>(DRAIN_BATCH);
+        Workload consumer = () -> {
+            try {
+                Integer first = deque.pollFirst(1, TimeUnit.MILLISECONDS);
+                if (first == null || !drain) return first;
+                batch.clear();
+                return deque.drainTo(batch, DRAIN_BATCH - 1);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+        return new Workload[] { producer, consumer };
+    }
+
+    // same as boundedBlockingDequeProducerConsumer, on java.util.concurrent's
+    // LinkedBlockingDeque
+    private static Workload[] linkedBlockingDequeProducerConsumer(int size, boolean drain) {
+        Integer item = 1;
+        LinkedBlockingDeque<Integer> deque = new LinkedBlockingDeque<>(size);
+        Workload producer = () -> {
+            try {
+                return deque.offerLast(item, 1, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+        List<Integer> batch = new ArrayList<>(DRAIN_BATCH);
+        Workload consumer = () -> {
+            try {
+                Integer first = deque.pollFirst(1, TimeUnit.MILLISECONDS);
+                if (first == null || !drain) return first;
+                batch.clear();
+                return deque.drainTo(batch, DRAIN_BATCH - 1);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+        return new Workload[] { producer, consumer };
+    }
+
+    // same as dequeAddLastRemoveFirst, on the int deque; the items are never boxed
+    private static Workload intDequeAddLastRemoveFirst(int size) {
+        return () -> {
+            IntDeque deque = new IntDeque();
+            for (int i = 0; i < size; i++) {
+                deque.addLast(i);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            return sum;
+        };
+    }
+
+    // same as dequeAddFirstRemoveLast, on the int deque; the items are never boxed
+    private static Workload intDequeAddFirstRemoveLast(int size) {
+        return () -> {
+            IntDeque deque = new IntDeque();
+            for (int i = 0; i < size; i++) {
+                deque.addFirst(i);
+            }
+            int sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            return sum;
+        };
+    }
+
+    // same as intDequeAddLastRemoveFirst, on the memory-mapped deque with longs; the deque is
+    // opened once and stays empty between runs, so a run includes mapping and deleting the
+    // segments it passes through but no forcing to disk
+    private static Workload persistentDequeAddLastRemoveFirst(int size) {
+        PersistentDeque<Long> deque = persistentDeque();
+        return () -> {
+            for (long i = 0; i < size; i++) {
+                deque.addLast(i);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeFirst();
+            }
+            return sum;
+        };
+    }
+
+    // same as intDequeAddFirstRemoveLast, on the memory-mapped deque with longs
+    private static Workload persistentDequeAddFirstRemoveLast(int size) {
+        PersistentDeque<Long> deque = persistentDeque();
+        return () -> {
+            for (long i = 0; i < size; i++) {
+                deque.addFirst(i);
+            }
+            long sum = 0;
+            while (!deque.isEmpty()) {
+                sum += deque.removeLast();
+            }
+            return sum;
+        };
+    }
+
+    // an empty deque of longs in a temporary directory that is deleted when the JVM exits
+    private static PersistentDeque<Long> persistentDeque() {
+        try {
+            Path directory = Files.createTempDirectory("persistent-deque");
+            PersistentDeque<Long> deque = new PersistentDeque<>(directory, PersistentDeque.LONGS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                deque.close();
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                    Files.delete(directory);
+                }
+                catch (IOException e) {
+                    // leave it for the operating system's temporary file cleanup
+                }
+            }));
+            return deque;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // one push and one pop at each end of a lock-free deque prefilled with size items; the
+    // workload is shared by every benchmark thread, so it measures contention
+    private static Workload concurrentDequePushPop(int size) {
+        Integer item = 1;
+        ConcurrentDeque<Integer> deque = new ConcurrentDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(item);
+        }
+        return () -> {
+            deque.addLast(item);
+            deque.removeFirst();
+            deque.addFirst(item);
+            return deque.removeLast();
+        };
+    }
+
+    // same as concurrentDequePushPop, on the linked Deque with every call synchronized on it,
+    // which is how it has to be shared between threads
+    private static Workload lockedDequePushPop(int size) {
+        Integer item = 1;
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(item);
+        }
+        return () -> {
+            synchronized (deque) {
+                deque.addLast(item);
+            }
+            synchronized (deque) {
+                deque.removeFirst();
+            }
+            synchronized (deque) {
+                deque.addFirst(item);
+            }
+            synchronized (deque) {
+                return deque.removeLast();
+            }
+        };
+    }
+
+    // Permutation's streaming mode: samples 10 of size newline-separated 8-letter strings read
+    // from an in-memory channel; the input is built as bytes, since the other workloads of a
+    // benchmark already hold size strings each
+    private static Workload permutationStream(int size, SplittableRandom random) {
+        byte[] bytes = new byte[9 * size];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = i % 9 == 8 ? (byte) '\n' : (byte) ('A' + random.nextInt(26));
+        }
+        return () -> {
+            try {
+                return Permutation.sample(Channels.newChannel(new ByteArrayInputStream(bytes)), 10);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    // one enqueue, one sample and one dequeue on a striped randomized queue prefilled with
+    // size items; the workload is shared by every benchmark thread, so it measures contention
+    private static Workload concurrentRandomizedQueueEnqueueDequeue(int size) {
+        Integer item = 1;
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(item);
+        }
+        return () -> {
+            queue.enqueue(item);
+            queue.sample();
+            return queue.dequeue();
+        };
+    }
+
+    // same as concurrentRandomizedQueueEnqueueDequeue, on RandomizedQueue with every call
+    // synchronized on it
+    private static Workload lockedRandomizedQueueEnqueueDequeue(int size) {
+        Integer item = 1;
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(item);
+        }
+        return () -> {
+            synchronized (queue) {
+                queue.enqueue(item);
+            }
+            synchronized (queue) {
+                queue.sample();
+            }
+            synchronized (queue) {
+                return queue.dequeue();
+            }
+        };
+    }
+
+    // what Permutation does with size input strings: enqueues them one at a time, then
+    // dequeues half of them one at a time
+    private static Workload randomizedQueuePermutation(int size, SplittableRandom random) {
+        String[] words = randomWords(size, random);
+        int k = size / 2;
+        return () -> {
+            RandomizedQueue<String> queue = new RandomizedQueue<>();
+            for (String word : words) {
+                queue.enqueue(word);
+            }
+            int length = 0;
+            for (int i = 0; i < k; i++) {
+                length += queue.dequeue().length();
+            }
+            return length;
+        };
+    }
+
+    // same as randomizedQueuePermutation, with one enqueueAll and one bulk dequeue
+    private static Workload randomizedQueuePermutationBulk(int size, SplittableRandom random) {
+        List<String> words = Arrays.asList(randomWords(size, random));
+        int k = size / 2;
+        return () -> {
+            RandomizedQueue<String> queue = new RandomizedQueue<>();
+            queue.enqueueAll(words);
+            int[] length = new int[1];
+            queue.dequeue(k, word -> length[0] += word.length());
+            return length[0];
+        };
+    }
+
+    // one full pass of a random-order iterator over a queue of size items, either the copying
+    // iterator() or lazyIterator()
+    private static Workload randomizedQueueIterate(int size, boolean lazy) {
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+        queue.enqueueAll(Arrays.asList(boxed(size)));
+        return () -> {
+            Iterator<Integer> iterator = lazy ? queue.lazyIterator() : queue.iterator();
+            int sum = 0;
+            while (iterator.hasNext()) {
+                sum += iterator.next();
+            }
+            return sum;
+        };
+    }
+
+    // one weighted sample from a queue of size items with weights spread over six orders of
+    // magnitude
+    private static Workload weightedRandomizedQueueSample(int size, SplittableRandom random) {
+        WeightedRandomizedQueue<Integer> queue = weightedQueue(size, random);
+        return queue::sample;
+    }
+
+    // one weighted dequeue and one enqueue of the same item with a fresh weight, on a queue of
+    // size items
+    private static Workload weightedRandomizedQueueDequeueEnqueue(int size,
+                                                                  SplittableRandom random) {
+        WeightedRandomizedQueue<Integer> queue = weightedQueue(size, random);
+        double[] weights = randomWeights(QUERIES, random);
+        int[] next = new int[1];
+        return () -> {
+            Integer item = queue.dequeue();
+            queue.enqueue(item, weights[next[0]++ & (QUERIES - 1)]);
+            return item;
+        };
+    }
+
+    // one sample from an alias table over the same kind of weights as the weighted queue
+    private static Workload aliasTableSample(int size, SplittableRandom random) {
+        AliasTable<Integer> table = new AliasTable<>(boxed(size), randomWeights(size, random));
+        return table::sample;
+    }
+
+    // a weighted queue holding 0 .. size - 1 with random weights
+    private static WeightedRandomizedQueue<Integer> weightedQueue(int size,
+                                                                  SplittableRandom random) {
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>();
+        Integer[] items = boxed(size);
+        double[] weights = randomWeights(size, random);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(items[i], weights[i]);
+        }
+        return queue;
+    }
+
+    // n weights log-uniform between 1 and 10^6
+    private static double[] randomWeights(int n, SplittableRandom random) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.pow(10, 6 * random.nextDouble());
+        }
+        return weights;
+    }
+
+    // same as randomizedQueueEnqueueDequeue, on the int randomized queue
+    private static Workload intRandomizedQueueEnqueueDequeue(int size) {
+        return () -> {
+            IntRandomizedQueue queue = new IntRandomizedQueue();
+            for (int i = 0; i < size; i++) {
+                queue.enqueue(i);
+            }
+            int sum = 0;
+            while (!queue.isEmpty()) {
+                sum += queue.dequeue();
+            }
+            return sum;
+        };
+    }
+
+    // a scheduler's task queue: role 0 is the owner, which pushes a task and pops one back
+    // whenever the deque holds more than size tasks, and role 1 is a thief, which steals from
+    // the other end and finds nothing when the thieves outrun the owner
+    private static Workload[] workStealingDequeOwnerThief(int size) {
+        Integer item = 1;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.push(item);
+        }
+        Workload owner = () -> {
+            deque.push(item);
+            return deque.size() > size ? deque.pop() : item;
+        };
+        Workload thief = deque::steal;
+        return new Workload[] { owner, thief };
+    }
+
+    // same as workStealingDequeOwnerThief, on the linked Deque with every call synchronized on
+    // it
+    private static Workload[] lockedDequeOwnerThief(int size) {
+        Integer item = 1;
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(item);
+        }
+        Workload owner = () -> {
+            synchronized (deque) {
+                deque.addLast(item);
+                return deque.size() > size ? deque.removeLast() : item;
+            }
+        };
+        Workload thief = () -> {
+            synchronized (deque) {
+                return deque.isEmpty() ? null : deque.removeFirst();
+            }
+        };
+        return new Workload[] { owner, thief };
+    }
+
+    // enqueues size items and dequeues them all in random order
+    private static Workload randomizedQueueEnqueueDequeue(int size) {
+        Integer[] items = boxed(size);
+        return () -> {
+            RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+            for (Integer item : items) {
+                queue.enqueue(item);
+            }
+            int sum = 0;
+            while (queue.size() > 0) {
+                sum += queue.dequeue();
+            }
+            return sum;
+        };
+    }
+
+    // finds the segments among size distinct points, a quarter of them lying on 4-point lines
+    private static Workload fastCollinearPoints(int size, SplittableRandom random) {
+        Set<Long> used = new HashSet<>();
+        Point[] points = new Point[size];
+        int count = 0;
+        while (count + 4 <= size / 4) {
+            int x = random.nextInt(1000);
+            int y = random.nextInt(1000);
+            int dx = 1 + random.nextInt(50);
+            int dy = random.nextInt(101) - 50;
+            boolean free = true;
+            for (int k = 0; k < 4; k++) {
+                if (used.contains(key(x + k * dx, y + k * dy))) free = false;
+            }
+            if (!free) continue;
+            for (int k = 0; k < 4; k++) {
+                used.add(key(x + k * dx, y + k * dy));
+                points[count++] = new Point(x + k * dx, y + k * dy);
+            }
+        }
+        while (count < size) {
+            int x = random.nextInt(32768);
+            int y = random.nextInt(32768);
+            if (used.add(key(x, y))) points[count++] = new Point(x, y);
+        }
+        return () -> new FastCollinearPoints(points).numberOfSegments();
+    }
+
+    // solves an n-by-n puzzle scrambled by a random walk of the given number of moves
+    private static Workload solver(int n, int moves, SplittableRandom random,
+                                   Solver.Algorithm algorithm, Solver.Heuristic heuristic) {
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < n * n - 1; i++) {
+            tiles[i / n][i % n] = i + 1;
+        }
+        int blankRow = n - 1;
+        int blankCol = n - 1;
+        int previous = -1;
+        int[] dr = { -1, 1, 0, 0 };
+        int[] dc = { 0, 0, -1, 1 };
+        for (int m = 0; m < moves; m++) {
+            int dir = random.nextInt(4);
+            int row = blankRow + dr[dir];
+            int col = blankCol + dc[dir];
+            // stay on the board and never undo the previous move
+            if (row < 0 || row >= n || col < 0 || col >= n || (dir ^ 1) == previous) {
+                m--;
+                continue;
+            }
+            tiles[blankRow][blankCol] = tiles[row][col];
+            tiles[row][col] = 0;
+            blankRow = row;
+            blankCol = col;
+            previous = dir;
+        }
+        Board initial = new Board(tiles);
+        return () -> new Solver(initial, algorithm, heuristic).moves();
+    }
+
+    // the pattern database for n-by-n boards, kept in the temporary directory so that it is
+    // built by the first run only
+    private static PatternDatabase patternDatabase(int n) {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "pdb-" + n + "x" + n + ".dat");
+        try {
+            return PatternDatabase.open(file, n);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // nearest neighbor in a tree of size random points in the unit square
+    private static Workload kdTreeNearest(int size, SplittableRandom random) {
+        KdTree tree = new KdTree();
+        for (int i = 0; i < size; i++) {
+            tree.insert(new Point2D(random.nextDouble(), random.nextDouble()));
+        }
+        Point2D[] queries = new Point2D[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new Point2D(random.nextDouble(), random.nextDouble());
+        }
+        int[] next = { 0 };
+        return () -> tree.nearest(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // range search with a 0.05-by-0.05 rectangle in a tree of size random points
+    private static Workload kdTreeRange(int size, SplittableRandom random) {
+        KdTree tree = new KdTree();
+        for (int i = 0; i < size; i++) {
+            tree.insert(new Point2D(random.nextDouble(), random.nextDouble()));
+        }
+        RectHV[] queries = new RectHV[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            double x = random.nextDouble() * 0.95;
+            double y = random.nextDouble() * 0.95;
+            queries[i] = new RectHV(x, y, x + 0.05, y + 0.05);
+        }
+        int[] next = { 0 };
+        return () -> tree.range(queries[next[0]++ & (QUERIES - 1)]);
+    }
+
+    // shortest ancestral path between random vertices of a rooted DAG with size vertices,
+    // where every vertex points to one or two lower-numbered vertices, like a WordNet
+    private static Workload sapLength(int size, SplittableRandom random) {
+        Digraph digraph = new Digraph(size);
+        for (int v = 1; v < size; v++) {
+            digraph.addEdge(v, random.nextInt(v));
+            if (v > 1 && random.nextBoolean()) digraph.addEdge(v, random.nextInt(v));
+        }
+        SAP sap = new SAP(digraph);
+        int[] from = new int[QUERIES];
+        int[] to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = random.nextInt(size);
+            to[i] = random.nextInt(size);
+        }
+        int[] next = { 0 };
+        return () -> {
+            int i = next[0]++ & (QUERIES - 1);
+            return sap.length(from[i], to[i]);
+        };
+    }
+
+    // vertical seam of a size-by-size picture of random colors
+    private static Workload seamCarverFindVerticalSeam(int size, SplittableRandom random) {
+        Picture picture = new Picture(size, size);
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                picture.set(col, row, new Color(random.nextInt(1 << 24)));
+            }
+        }
+        SeamCarver carver = new SeamCarver(picture);
+        return carver::findVerticalSeam;
+    }
+
+    // all valid words on a random 4-by-4 board with a dictionary of size words; half of the
+    // words are traced along random paths of the board so that some of them are found
+    private static Workload boggleSolverGetAllValidWords(int size, SplittableRandom random) {
+        BoggleBoard board = new BoggleBoard(4, 4);
+        Set<String> words = new HashSet<>();
+        while (words.size() < size) {
+            int length = 3 + random.nextInt(6);
+            if (words.size() % 2 == 0) words.add(pathWord(board, length, random));
+            else words.add(randomWord(length, random));
+        }
+        BoggleSolver solver = new BoggleSolver(words.toArray(new String[0]));
+        return () -> solver.getAllValidWords(board);
+    }
+
+    // word spelled by a random self-avoiding walk of up to length tiles on the board
+    private static String pathWord(BoggleBoard board, int length, SplittableRandom random) {
+        int rows = board.rows();
+        int cols = board.cols();
+        boolean[][] visited = new boolean[rows][cols];
+        int row = random.nextInt(rows);
+        int col = random.nextInt(cols);
+        StringBuilder word = new StringBuilder();
+        for (int k = 0; k < length; k++) {
+            visited[row][col] = true;
+            char letter = board.getLetter(row, col);
+            word.append(letter == 'Q' ? "QU" : String.valueOf(letter));
+            int[] next = null;
+            for (int tries = 0; tries < 16 && next == null; tries++) {
+                int r = row + random.nextInt(3) - 1;
+                int c = col + random.nextInt(3) - 1;
+                if (r >= 0 && r < rows && c >= 0 && c < cols && !visited[r][c]) {
+                    next = new int[] { r, c };
+                }
+            }
+            if (next == null) break;
+            row = next[0];
+            col = next[1];
+        }
+        return word.toString();
+    }
+
+    // uppercase word of random letters
+    private static String randomWord(int length, SplittableRandom random) {
+        StringBuilder word = new StringBuilder();
+        for (int k = 0; k < length; k++) {
+            word.append((char) ('A' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    // n random 8-letter words, about the size of a line of Permutation's input
+    private static String[] randomWords(int n, SplittableRandom random) {
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            words[i] = randomWord(8, random);
+        }
+        return words;
+    }
+
+    // 0 .. n - 1 in random order
+    private static int[] shuffledIndices(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    // 0 .. size - 1 boxed up front, so the queue benchmarks do not measure boxing
+    private static Integer[] boxed(int size) {
+        Integer[] items = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i;
+        }
+        return items;
+    }
+
+    // packs a point's coordinates into one key
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+}
@@ -0,0 +1,72 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Producer-consumer benchmark for the bounded blocking deque
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Producers and consumers share one bounded deque. The producer score counts items moved; a
+// draining consumer's score counts batches. Pass -tg p,c to the benchmarks jar for p
+// producers and c consumers.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingDequeBench {
+
+    // capacity of the deque
+    @Param({ "1024" })
+    private int size;
+
+    // BoundedBlockingDeque is the circular array behind one lock, LinkedBlockingDeque is
+    // java.util.concurrent's
+    @Param({ "BoundedBlockingDeque", "LinkedBlockingDeque" })
+    private String impl;
+
+    // putTake moves one item per consumer call, putDrain up to 64
+    @Param({ "putTake", "putDrain" })
+    private String pattern;
+
+    private Workload producer;
+    private Workload consumer;
+
+    @Setup
+    public void setup() {
+        Workload[] roles = Workloads.createRoles(impl + "." + pattern, size, 1L);
+        producer = roles[0];
+        consumer = roles[1];
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(2)
+    public Object producer() {
+        return producer.run();
+    }
+
+    @Benchmark
+    @Group("pipeline")
+    @GroupThreads(2)
+    public Object consumer() {
+        return consumer.run();
+    }
+}
@@ -0,0 +1,46 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: BoggleSolver benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoggleSolverBench {
+
+    // number of words in the dictionary
+    @Param({ "1000", "10000", "100000" })
+    private int size;
+
+    private Workload getAllValidWordsWorkload;
+
+    @Setup
+    public void setup() {
+        getAllValidWordsWorkload = Workloads.create("BoggleSolver.getAllValidWords", size, 1L);
+    }
+
+    @Benchmark
+    public Object getAllValidWords() {
+        return getAllValidWordsWorkload.run();
+    }
+}
@@ -0,0 +1,67 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Contention benchmark for the lock-free deque
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// All benchmark threads share one deque. Run main() to sweep 1 to 64 threads, or pass -t to
+// the benchmarks jar for a single thread count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentDequeBench {
+
+    // number of items the deque holds while the threads push and pop
+    @Param({ "1000" })
+    private int size;
+
+    // ConcurrentDeque is lock-free, LockedDeque is the linked Deque behind a monitor
+    @Param({ "ConcurrentDeque", "LockedDeque" })
+    private String impl;
+
+    private Workload pushPopWorkload;
+
+    @Setup
+    public void setup() {
+        pushPopWorkload = Workloads.create(impl + ".pushPop", size, 1L);
+    }
+
+    @Benchmark
+    public Object pushPop() {
+        return pushPopWorkload.run();
+    }
+
+    // runs the benchmark at 1, 2, 4, ..., 64 threads
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentDequeBench.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Contention benchmark for the striped randomized queue
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// All benchmark threads share one queue. Run main() to sweep 1 to 64 threads, or pass -t to
+// the benchmarks jar for a single thread count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentRandomizedQueueBench {
+
+    // number of items the queue holds while the threads enqueue and dequeue
+    @Param({ "1000" })
+    private int size;
+
+    // ConcurrentRandomizedQueue is striped, LockedRandomizedQueue is RandomizedQueue behind a
+    // monitor
+    @Param({ "ConcurrentRandomizedQueue", "LockedRandomizedQueue" })
+    private String impl;
+
+    private Workload enqueueDequeueWorkload;
+
+    @Setup
+    public void setup() {
+        enqueueDequeueWorkload = Workloads.create(impl + ".enqueueDequeue", size, 1L);
+    }
+
+    @Benchmark
+    public Object enqueueDequeue() {
+        return enqueueDequeueWorkload.run();
+    }
+
+    // runs the benchmark at 1, 2, 4, ..., 64 threads
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentRandomizedQueueBench.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Deque benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeBench {
+
+    // number of items pushed through the deque
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    // Deque is the linked list, RingDeque the circular array, IntDeque the circular int array
+    // and PersistentDeque the memory-mapped files (holding longs); run with -prof gc to compare
+    // the bytes allocated per operation as well as throughput
+    @Param({ "Deque", "RingDeque", "IntDeque", "PersistentDeque" })
+    private String impl;
+
+    private Workload addLastRemoveFirstWorkload;
+    private Workload addFirstRemoveLastWorkload;
+
+    @Setup
+    public void setup() {
+        addLastRemoveFirstWorkload = Workloads.create(impl + ".addLastRemoveFirst", size, 1L);
+        addFirstRemoveLastWorkload = Workloads.create(impl + ".addFirstRemoveLast", size, 1L);
+    }
+
+    @Benchmark
+    public Object addLastRemoveFirst() {
+        return addLastRemoveFirstWorkload.run();
+    }
+
+    @Benchmark
+    public Object addFirstRemoveLast() {
+        return addFirstRemoveLastWorkload.run();
+    }
+}
@@ -0,0 +1,53 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: KdTree benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KdTreeBench {
+
+    // number of points in the tree
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    private Workload nearestWorkload;
+    private Workload rangeWorkload;
+
+    @Setup
+    public void setup() {
+        nearestWorkload = Workloads.create("KdTree.nearest", size, 1L);
+        rangeWorkload = Workloads.create("KdTree.range", size, 1L);
+    }
+
+    @Benchmark
+    public Object nearest() {
+        return nearestWorkload.run();
+    }
+
+    @Benchmark
+    public Object range() {
+        return rangeWorkload.run();
+    }
+}
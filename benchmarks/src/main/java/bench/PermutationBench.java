@@ -0,0 +1,63 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Permutation-sized RandomizedQueue benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Queues size strings and takes half of them back out, the way Permutation does, either one
+// call per item or through enqueueAll and the bulk dequeue; stream is Permutation's streaming
+// mode sampling 10 of size strings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermutationBench {
+
+    // number of input strings
+    @Param({ "1000000", "10000000" })
+    private int size;
+
+    private Workload oneByOneWorkload;
+    private Workload bulkWorkload;
+    private Workload streamWorkload;
+
+    @Setup
+    public void setup() {
+        oneByOneWorkload = Workloads.create("RandomizedQueue.permutation", size, 1L);
+        bulkWorkload = Workloads.create("RandomizedQueue.permutationBulk", size, 1L);
+        streamWorkload = Workloads.create("Permutation.stream", size, 1L);
+    }
+
+    @Benchmark
+    public Object oneByOne() {
+        return oneByOneWorkload.run();
+    }
+
+    @Benchmark
+    public Object bulk() {
+        return bulkWorkload.run();
+    }
+
+    @Benchmark
+    public Object stream() {
+        return streamWorkload.run();
+    }
+}
@@ -0,0 +1,50 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: RandomizedQueue benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomizedQueueBench {
+
+    // number of items pushed through the queue
+    @Param({ "1000", "100000", "1000000" })
+    private int size;
+
+    // RandomizedQueue holds boxed items, IntRandomizedQueue holds ints
+    @Param({ "RandomizedQueue", "IntRandomizedQueue" })
+    private String impl;
+
+    private Workload enqueueDequeueWorkload;
+
+    @Setup
+    public void setup() {
+        enqueueDequeueWorkload = Workloads.create(impl + ".enqueueDequeue", size, 1L);
+    }
+
+    @Benchmark
+    public Object enqueueDequeue() {
+        return enqueueDequeueWorkload.run();
+    }
+}
@@ -0,0 +1,51 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: RandomizedQueue iterator benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomizedQueueIteratorBench {
+
+    // number of items on the queue
+    @Param({ "1000000", "10000000" })
+    private int size;
+
+    // iterator copies and shuffles the queue, lazyIterator permutes indices on the fly; run
+    // with -prof gc to compare the bytes allocated per pass
+    @Param({ "iterator", "lazyIterator" })
+    private String iterator;
+
+    private Workload iterateWorkload;
+
+    @Setup
+    public void setup() {
+        iterateWorkload = Workloads.create("RandomizedQueue." + iterator, size, 1L);
+    }
+
+    @Benchmark
+    public Object iterate() {
+        return iterateWorkload.run();
+    }
+}
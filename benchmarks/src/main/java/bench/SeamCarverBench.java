@@ -0,0 +1,46 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: SeamCarver benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeamCarverBench {
+
+    // width and height of the picture
+    @Param({ "100", "500", "1000" })
+    private int size;
+
+    private Workload findVerticalSeamWorkload;
+
+    @Setup
+    public void setup() {
+        findVerticalSeamWorkload = Workloads.create("SeamCarver.findVerticalSeam", size, 1L);
+    }
+
+    @Benchmark
+    public Object findVerticalSeam() {
+        return findVerticalSeamWorkload.run();
+    }
+}
@@ -0,0 +1,67 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Solver benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBench {
+
+    // length of the random walk that scrambles the puzzle
+    @Param({ "10", "20", "40" })
+    private int size;
+
+    // new is A* (the Solver(Board) constructor), idaStar is Solver.Algorithm.IDA_STAR, both
+    // with manhattan distance; the others are IDA* with Solver.LINEAR_CONFLICT or the default
+    // PatternDatabase, which the first run builds (for minutes on the 5-by-5) and saves in
+    // the temporary directory
+    @Param({ "new", "idaStar", "idaStarLinearConflict", "idaStarPatternDatabase" })
+    private String algorithm;
+
+    private Workload solveWorkload;
+    private Workload solve4x4Workload;
+    private Workload solve5x5Workload;
+
+    @Setup
+    public void setup() {
+        solveWorkload = Workloads.create("Solver." + algorithm, size, 1L);
+        solve4x4Workload = Workloads.create("Solver." + algorithm + "4x4", size, 1L);
+        solve5x5Workload = Workloads.create("Solver." + algorithm + "5x5", size, 1L);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return solveWorkload.run();
+    }
+
+    @Benchmark
+    public Object solve4x4() {
+        return solve4x4Workload.run();
+    }
+
+    @Benchmark
+    public Object solve5x5() {
+        return solve5x5Workload.run();
+    }
+}
@@ -0,0 +1,61 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Weighted sampling benchmarks
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeightedSamplingBench {
+
+    // number of weighted items
+    @Param({ "1000", "1000000" })
+    private int size;
+
+    private Workload queueSampleWorkload;
+    private Workload queueDequeueEnqueueWorkload;
+    private Workload aliasSampleWorkload;
+
+    @Setup
+    public void setup() {
+        queueSampleWorkload = Workloads.create("WeightedRandomizedQueue.sample", size, 1L);
+        queueDequeueEnqueueWorkload =
+                Workloads.create("WeightedRandomizedQueue.dequeueEnqueue", size, 1L);
+        aliasSampleWorkload = Workloads.create("AliasTable.sample", size, 1L);
+    }
+
+    @Benchmark
+    public Object queueSample() {
+        return queueSampleWorkload.run();
+    }
+
+    @Benchmark
+    public Object queueDequeueEnqueue() {
+        return queueDequeueEnqueueWorkload.run();
+    }
+
+    @Benchmark
+    public Object aliasSample() {
+        return aliasSampleWorkload.run();
+    }
+}
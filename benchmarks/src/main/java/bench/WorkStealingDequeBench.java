@@ -0,0 +1,82 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Owner-versus-thieves benchmark for the work-stealing deque
+ **************************************************************************** */
+
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// One owner thread and a group of thieves share one deque; JMH reports the owner's and the
+// thieves' throughput separately. Run main() to sweep 1 to 63 thieves, or pass -tg 1,k to
+// the benchmarks jar for k thieves.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingDequeBench {
+
+    // number of tasks the owner keeps on the deque
+    @Param({ "1000" })
+    private int size;
+
+    // WorkStealingDeque is Chase-Lev, LockedDeque is the linked Deque behind a monitor
+    @Param({ "WorkStealingDeque", "LockedDeque" })
+    private String impl;
+
+    private Workload owner;
+    private Workload thief;
+
+    @Setup
+    public void setup() {
+        Workload[] roles = Workloads.createRoles(impl + ".ownerThief", size, 1L);
+        owner = roles[0];
+        thief = roles[1];
+    }
+
+    @Benchmark
+    @Group("ownerThief")
+    @GroupThreads(1)
+    public Object owner() {
+        return owner.run();
+    }
+
+    @Benchmark
+    @Group("ownerThief")
+    @GroupThreads(3)
+    public Object thief() {
+        return thief.run();
+    }
+
+    // runs the benchmark with one owner and 1, 3, 7, ..., 63 thieves
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 2; threads <= 64; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(WorkStealingDequeBench.class.getSimpleName())
+                    .threadGroups(1, threads - 1)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: One measured operation of a benchmark
+ **************************************************************************** */
+
+package bench;
+
+public interface Workload {
+
+    // performs the measured operation once and returns a result for the blackhole
+    Object run();
+}
@@ -0,0 +1,16 @@
+/* *****************************************************************************
+ *  Name: Jeremy Steinberg
+ *  Date: 10/18/26
+ *  Description: Builds benchmark workloads over the assignment classes
+ **************************************************************************** */
+
+package bench;
+
+public interface WorkloadFactory {
+
+    // builds the named workload with inputs of the given size drawn from seed
+    Workload create(String name, int size, long seed);
+
+    // builds the named workload as one Workload per thread role, all sharing one structure
+    Workload[] createRoles(String name, int size, long seed);
+}